@@ -0,0 +1,104 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.gene;
+
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ * Benchmarks the genome-level crossovers against crossing over one gene at a time
+ *
+ * For each genome length, every crossover constant crosses over a batch of genomes
+ * through the genome-level 'perform', and through a loop of the gene-level 'perform'.
+ * The median time of several batches is reported, per genome, in microseconds.
+ * Both forms consume the same parents, such that only the cost of the crossover differs.
+ * Point crossovers cut within each gene at the gene level, rather than cutting the genome,
+ * so their gene-level times are the cost of a different operator, reported for reference.
+ *
+ * Usage, from the repository root:
+ *      javac -d out $(find src/genetic src/util bench -name '*.java')
+ *      java -cp out genetic.gene.CrossoverBenchmark [bias]
+ */
+public final class CrossoverBenchmark
+{
+    private static final int REPETITIONS = 15;
+
+    /* Number of genes crossed over per batch, such that each batch takes long enough to time */
+    private static final int GENES_PER_BATCH = 1 << 18;
+
+    private static final String[] NAMES =
+            { "UNIFORM", "SINGLE_POINT", "TWO_POINT", "DISCRETE", "ARITHMETIC", "SIMULATED_BINARY", "BLEND" };
+    private static final Crossover[] CROSSOVERS = { Crossover.UNIFORM, Crossover.SINGLE_POINT, Crossover.TWO_POINT,
+            Crossover.DISCRETE, Crossover.ARITHMETIC, Crossover.SIMULATED_BINARY, Crossover.BLEND };
+
+    private CrossoverBenchmark() { }
+
+    public static void main(final String[] args)
+    {
+        final float bias = args.length > 0 ? Float.parseFloat(args[0]) : 0.5f;
+        final Random generator = new Random(1);
+        System.out.printf("%8s %18s %16s %16s%n", "genes", "crossover", "genome us", "per-gene us");
+        for (int length = 32; length <= 4096; length <<= 2)
+        {
+            final int numGenomes = GENES_PER_BATCH / length;
+            final int[][] fathers = new int[numGenomes][length], mothers = new int[numGenomes][length];
+            for (int g = 0; g < numGenomes; g++)
+                for (int i = 0; i < length; i++)
+                {
+                    fathers[g][i] = generator.nextInt() & Integer.MAX_VALUE;
+                    mothers[g][i] = generator.nextInt() & Integer.MAX_VALUE;
+                }
+            final int[] child = new int[length];
+            for (int c = 0; c < CROSSOVERS.length; c++)
+            {
+                final Crossover cross = CROSSOVERS[c];
+                final double genome = median(numGenomes, g ->
+                        cross.perform(fathers[g], 0, mothers[g], 0, child, 0, child.length, generator, bias));
+                final double perGene = median(numGenomes, g ->
+                {
+                    final int[] father = fathers[g], mother = mothers[g];
+                    for (int i = 0; i < child.length; i++)
+                        child[i] = cross.perform(father[i], mother[i], generator, bias);
+                });
+                System.out.printf("%8d %18s %16.3f %16.3f%n", length, NAMES[c], genome, perGene);
+            }
+        }
+    }
+
+    private interface Batch
+    {
+        void crossover(final int genome);
+    }
+
+    /* Median microseconds taken per genome to crossover a batch of genomes, after warming up */
+    private static double median(final int numGenomes, final Batch batch)
+    {
+        final double[] times = new double[REPETITIONS];
+        for (int rep = -REPETITIONS; rep < REPETITIONS; rep++) // Negative repetitions warm up the JIT
+        {
+            final long start = System.nanoTime();
+            for (int g = 0; g < numGenomes; g++)
+                batch.crossover(g);
+            if (rep >= 0) times[rep] = (System.nanoTime() - start) / 1e3 / numGenomes;
+        }
+        Arrays.sort(times);
+        return times[REPETITIONS / 2];
+    }
+}
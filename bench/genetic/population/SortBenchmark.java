@@ -0,0 +1,124 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.population;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static util.Utilities.sort;
+
+
+/**
+ * Benchmarks the radix sort of fitness costs against the comparison sorts
+ *
+ * For each population size, costs are sorted by the boxed comparator sort which 'Population'
+ * originally used, by the introsort of 'Utilities.sort', by the radix sort on the calling thread,
+ * and by the radix sort across threads. The comparator sort is skipped beyond 2^20 costs,
+ * as it would dominate the running time of the benchmark.
+ * The median time of several sorts is reported, each sort being of freshly shuffled costs.
+ * The cut-off within 'Population' is derived from these results. The minimum block size
+ * within 'ParallelRadixSort' requires a run upon several cores, with the thread count to match.
+ *
+ * Usage, from the repository root:
+ *      javac -d out $(find src/genetic src/util bench -name '*.java')
+ *      java -cp out genetic.population.SortBenchmark [threads]
+ */
+public final class SortBenchmark
+{
+    private static final int REPETITIONS = 15;
+
+    /* Largest population size which the comparator sort is benchmarked at */
+    private static final int MAX_COMPARATOR_SIZE = 1 << 20;
+
+    private SortBenchmark() { }
+
+    public static void main(final String[] args) throws InterruptedException
+    {
+        final int numThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        final Random generator = new Random(1);
+        System.out.printf("%10s %14s %14s %14s %14s%n", "size", "comparator ms", "introsort ms", "radix(1) ms",
+                "radix(" + numThreads + ") ms");
+        try
+        {
+            for (int size = 1 << 8; size <= 1 << 22; size <<= 1)
+            {
+                final double[] source = new double[size];
+                for (int i = 0; i < size; i++) source[i] = generator.nextDouble() * 100;
+                final ParallelRadixSort radix = new ParallelRadixSort(size);
+                final double comparator = size > MAX_COMPARATOR_SIZE ? Double.NaN
+                        : median(source, generator, SortBenchmark::comparatorSort);
+                final double intro = median(source, generator, (costs, indexes) -> sort(costs, indexes));
+                final double serial = median(source, generator, (costs, indexes) -> radix.sort(costs, indexes));
+                final double parallel = median(source, generator,
+                        (costs, indexes) -> radix.sort(costs, indexes, executor, numThreads));
+                System.out.printf("%10d %14.4f %14.4f %14.4f %14.4f%n", size, comparator, intro, serial, parallel);
+            }
+        }
+        finally { executor.shutdown(); }
+    }
+
+    private interface Sort
+    {
+        void sort(final double[] costs, final int[] indexes) throws InterruptedException;
+    }
+
+    /* Sorts the costs as 'Population' originally did, by boxing the indexes & sorting them by cost */
+    private static void comparatorSort(final double[] costs, final int[] indexes)
+    {
+        final double[] unsorted = Arrays.copyOf(costs, costs.length);
+        final List<Integer> sorted = IntStream.range(0, costs.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> unsorted[i]))
+                .toList();
+        for (int i = 0; i < costs.length; i++)
+        {
+            indexes[i] = sorted.get(i);
+            costs[i] = unsorted[indexes[i]];
+        }
+    }
+
+    /* Median milliseconds taken to sort shuffled copies of the costs, after warming up */
+    private static double median(final double[] source, final Random generator, final Sort sort)
+            throws InterruptedException
+    {
+        final double[] costs = new double[source.length];
+        final int[] indexes = new int[source.length];
+        final double[] times = new double[REPETITIONS];
+        for (int rep = -REPETITIONS; rep < REPETITIONS; rep++) // Negative repetitions warm up the JIT
+        {
+            System.arraycopy(source, 0, costs, 0, costs.length);
+            for (int i = costs.length - 1; i > 0; i--) // Shuffle, such that each sort sees a new order
+            {
+                final int j = generator.nextInt(i + 1);
+                final double t = costs[i]; costs[i] = costs[j]; costs[j] = t;
+            }
+            for (int i = 0; i < indexes.length; i++) indexes[i] = i;
+            final long start = System.nanoTime();
+            sort.sort(costs, indexes);
+            if (rep >= 0) times[rep] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(times);
+        return times[REPETITIONS / 2];
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.gene;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * Gene kernels which process as many genes at once as the hardware's vector registers allow
+ *
+ * Requires the 'jdk.incubator.vector' module, both to compile and to run.
+ * Resides within the optional 'src-vector' source root, such that 'src' compiles without the module;
+ * compile it against the classes of 'src' with '--add-modules jdk.incubator.vector'.
+ * Only ever loaded reflectively, such that the remainder of the program runs without the module.
+ * Genes beyond the last whole vector are processed one at a time.
+ *
+ * @see GeneKernels
+ */
+final class VectorGeneKernels extends GeneKernels
+{
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override void blend(final int[] father, final int fatherOffset, final int[] mother, final int motherOffset,
+                         final int[] masks, final int[] child, final int childOffset, final int length)
+    {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length())
+        {
+            final IntVector f = IntVector.fromArray(SPECIES, father, fatherOffset + i);
+            final IntVector m = IntVector.fromArray(SPECIES, mother, motherOffset + i);
+            final IntVector mask = IntVector.fromArray(SPECIES, masks, i);
+            // (mother & ~mask) | (father & mask)
+            m.lanewise(VectorOperators.BITWISE_BLEND, f, mask).intoArray(child, childOffset + i);
+        }
+        for (; i < length; i++)
+        {
+            final int mask = masks[i];
+            child[childOffset + i] = (father[fatherOffset + i] & mask) | (mother[motherOffset + i] & ~mask);
+        }
+    }
+
+    @Override void flip(final int[] genes, final int offset, final int[] masks, final int length)
+    {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length())
+            IntVector.fromArray(SPECIES, genes, offset + i)
+                    .lanewise(VectorOperators.XOR, IntVector.fromArray(SPECIES, masks, i))
+                    .intoArray(genes, offset + i);
+        for (; i < length; i++)
+            genes[offset + i] ^= masks[i];
+    }
+
+    @Override String name() { return "vector-" + SPECIES.vectorBitSize(); }
+}
@@ -0,0 +1,93 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+
+/**
+ * Cooperative cancellation of a simulation
+ *
+ * Cancelling the token interrupts the thread running the simulation, which in turn
+ * interrupts any in-flight fitness evaluations. The simulation stops as soon as possible,
+ * abandoning the generation in progress: its fitness costs are left partially evaluated,
+ * and the population is not restored to the end of the last completed generation.
+ * Fitness evaluations already in-flight are waited upon before the simulation returns,
+ * such that none write to the population afterwards.
+ * A token may only be attached to one simulation at a time.
+ */
+public final class CancellationToken
+{
+    private volatile boolean cancelled;
+    private Thread owner; // Thread running the simulation, guarded by 'this'
+
+    /**
+     * Constructs a cancellation token which is cancelled after a wall-clock budget elapses
+     *
+     * @param budget Duration after which the token is cancelled
+     * @return Cancellation token
+     */
+    public static CancellationToken withBudget(final Duration budget)
+    {
+        if (requireNonNull(budget).isNegative())
+            throw new IllegalArgumentException("Budget must be non-negative");
+        final CancellationToken token = new CancellationToken();
+        CompletableFuture.delayedExecutor(budget.toNanos(), NANOSECONDS).execute(token::cancel);
+        return token;
+    }
+
+    /**
+     * Cancels the simulation this token is attached to
+     *
+     * Has no effect if the token was already cancelled. If the token is not yet
+     * attached to a simulation, the simulation will stop as soon as it starts.
+     */
+    public synchronized void cancel()
+    {
+        if (cancelled) return;
+        cancelled = true;
+        if (owner != null) owner.interrupt();
+    }
+
+    /**
+     * @return True if the token has been cancelled
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /* Attaches the current thread as the thread to interrupt upon cancellation */
+    synchronized void attach()
+    {
+        if (owner != null) throw new IllegalStateException("Token is already attached to a simulation");
+        owner = Thread.currentThread();
+    }
+
+    /* Detaches the current thread, clearing any interrupt caused by cancellation */
+    void detach()
+    {
+        synchronized (this) { owner = null; }
+        if (cancelled) Thread.interrupted();
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic;
+
+import genetic.agent.Agent;
+import genetic.evaluation.Evaluator;
+import genetic.gradient.Gradient;
+import genetic.island.MigrationCoordinator;
+import genetic.island.MigrationLink;
+import genetic.island.Topology;
+import genetic.population.Population;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+import static util.Tasks.awaitAll;
+import static util.Tasks.submit;
+
+
+/**
+ * Defines an island model simulation
+ *
+ * Several populations (islands) evolve independently of one another, each on their own thread.
+ * Periodically, the top performing agents of each island migrate to another island.
+ * Islands do not contend over a shared serial phase, while migration maintains genetic diversity.
+ *
+ * @param <T> Type of agent
+ */
+public interface IslandSimulation<T extends Agent<T>> extends Simulation<T>
+{
+    /**
+     * Performs an island model simulation on the specified populations
+     *
+     * Each island evolves as described by the single population simulation.
+     * Every migration interval, the following will occur once all islands have sorted their population:
+     *      * Each island's top performing agents emigrate to the island dictated by the topology
+     *      * Emigrants replace the worst performing agents of their destination island
+     *      * Islands re-sort their population, then resume evolving independently
+     * Cost statistics of every island are combined, such that the callback receives one stream.
+     * Interrupting the calling thread stops every island, preserving the thread's interrupt status.
+     *
+     * @param islands Populations of agents, one per island
+     * @param gradients Population gradients, one per island
+     * @param generations Generations to iterate before stopping
+     * @param generator Random sequence generator, used for the migration topology
+     * @param topology Topology dictating the destination of emigrants
+     * @param interval Number of generations between migrations
+     * @param migrants Number of agents which emigrate from each island, domain: [0, size / 2]
+     * @see Simulation#run(Population, int, Random, Gradient, boolean)
+     */
+    default void runIslands(final List<? extends Population<T>> islands, final List<? extends Gradient<T>> gradients,
+                            final int generations, final Random generator, final Topology topology,
+                            final int interval, final int migrants)
+    {
+        requireNonNull(generator);
+        requireNonNull(topology);
+        final int numIslands = requireNonNull(islands).size();
+        if (numIslands <= 0) throw new IllegalArgumentException("At least one island must be specified");
+        if (requireNonNull(gradients).size() != numIslands)
+            throw new IllegalArgumentException("Each island must have exactly one gradient");
+        if (generations < 0) throw new IllegalArgumentException("Generation parameter must be positive");
+        if (interval <= 0) throw new IllegalArgumentException("Migration interval must be positive");
+        for (final Population<T> island : islands)
+            if (migrants < 0 || migrants > island.size() / 2)
+                throw new IllegalArgumentException("Migrant count must be within the domain: [0, size / 2]");
+
+        final DoubleSummaryStatistics[][] stats = new DoubleSummaryStatistics[numIslands][generations];
+        final int[] reported = { 0 }; // Generations broadcast so far, only accessed by the barrier action
+        final CyclicBarrier barrier = new CyclicBarrier(numIslands, () ->
+        {
+            /* Broadcast the combined performance of every generation since the last barrier */
+            final int last = min(reported[0] + interval, generations);
+            for (int gen = reported[0] + 1; gen <= last; gen++)
+            {
+                final DoubleSummaryStatistics dss = new DoubleSummaryStatistics();
+                for (final DoubleSummaryStatistics[] island : stats) dss.combine(island[gen - 1]);
+                genCostStatsCallback(dss, gen);
+            }
+            reported[0] = last;
+            if (last % interval == 0) migrate(islands, topology.destinations(numIslands, generator), migrants);
+        });
+
+        final ExecutorService es = Executors.newFixedThreadPool(numIslands);
+        try
+        {
+            final List<Future<?>> results = new ArrayList<>(numIslands);
+            for (int i = 0; i < numIslands; i++)
+            {
+                final Population<T> pop = requireNonNull(islands.get(i));
+                final Gradient<T> gradient = requireNonNull(gradients.get(i));
+                final DoubleSummaryStatistics[] islandStats = stats[i];
+                results.add(submit(es, () ->
+                {
+                    try
+                    {
+                        for (int gen = 1; gen <= generations && !Thread.currentThread().isInterrupted(); gen++)
+                        {
+                            pop.collapseDuplicates();
+                            Evaluator.SERIAL.evaluate(pop);
+                            pop.expandDuplicates();
+                            islandStats[gen - 1] = pop.costEvaluation();
+                            pop.sortPopulation();
+                            if (gen % interval == 0 || gen == generations)
+                            {
+                                barrier.await();
+                                // Immigrants replaced the worst agents, and must be sorted into place
+                                if (gen % interval == 0) pop.sortPopulation();
+                            }
+                            gradient.apply(pop);
+                            pop.repopulate();
+                        }
+                    }
+                    catch (final RuntimeException e)
+                    {
+                        barrier.reset(); // Release the other islands, rather than have them wait forever
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+
+            /* Ensure each island completes normally, abandoning the remaining islands otherwise */
+            try { awaitAll(results); }
+            catch (final RuntimeException e)
+            {
+                barrier.reset(); // Release islands waiting to migrate
+                throw e;
+            }
+            catch (final InterruptedException e)
+            {
+                barrier.reset();
+                Thread.currentThread().interrupt();
+            }
+        }
+        finally { es.shutdown(); }
+    }
+
+    /**
+     * Performs a single island of a multi-process island model simulation
+     *
+     * The island evolves as described by the single population simulation.
+     * Every migration interval, the island exchanges cost statistics and emigrants with a
+     * coordinator, which may reside in another process. The coordinator broadcasts the
+     * combined statistics of every island, so this simulation's callback is not invoked.
+     * Every island of the simulation must be configured with the same generations and interval.
+     *
+     * @param pop Population of the island
+     * @param gradient Population gradient for genetic diversity
+     * @param generations Generations to iterate before stopping
+     * @param interval Number of generations between migrations
+     * @param migrants Number of agents which emigrate from the island, domain: [0, size / 2]
+     * @param coordinator Address of the migration coordinator
+     * @see MigrationCoordinator
+     */
+    default void runRemoteIsland(final Population<T> pop, final Gradient<T> gradient, final int generations,
+                                 final int interval, final int migrants, final SocketAddress coordinator)
+    {
+        requireNonNull(pop);
+        requireNonNull(gradient);
+        if (generations < 0) throw new IllegalArgumentException("Generation parameter must be positive");
+        if (interval <= 0) throw new IllegalArgumentException("Migration interval must be positive");
+        if (migrants < 0 || migrants > pop.size() / 2)
+            throw new IllegalArgumentException("Migrant count must be within the domain: [0, size / 2]");
+
+        try (final MigrationLink link = new MigrationLink(coordinator))
+        {
+            final DoubleSummaryStatistics[] stats = new DoubleSummaryStatistics[generations];
+            int exchanged = 0; // Generations reported to the coordinator so far
+            // The coordinator must still be notified of completion, even if there is nothing to simulate
+            if (generations == 0) link.exchange(pop, stats, 1, 0, true);
+            for (int gen = 1; gen <= generations; gen++)
+            {
+                pop.collapseDuplicates();
+                Evaluator.SERIAL.evaluate(pop);
+                pop.expandDuplicates();
+                stats[gen - 1] = pop.costEvaluation();
+                pop.sortPopulation();
+                if (gen % interval == 0 || gen == generations)
+                {
+                    final int arrivals = link.exchange(pop, Arrays.copyOfRange(stats, exchanged, gen),
+                            exchanged + 1, gen % interval == 0 ? migrants : 0, gen == generations);
+                    exchanged = gen;
+                    // Immigrants replaced the worst agents, and must be sorted into place
+                    if (arrivals > 0) pop.sortPopulation();
+                }
+                gradient.apply(pop);
+                pop.repopulate();
+            }
+        }
+        catch (final IOException e) { throw new UncheckedIOException(e); }
+        catch (final InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    /* Copies the top agents of each island over the worst agents of its destination island */
+    private static <T extends Agent<T>> void migrate(final List<? extends Population<T>> islands,
+                                                     final int[] destinations, final int migrants)
+    {
+        final int[] received = new int[destinations.length];
+        for (int i = 0; i < destinations.length; i++)
+        {
+            final Population<T> src = islands.get(i), dest = islands.get(destinations[i]);
+            if (src == dest) continue;
+            final List<T> emigrants = src.getPopulation();
+            final double[] costs = src.getFitnessCosts();
+            // Emigrants are drawn from the top half while immigrants replace the bottom half, they never overlap
+            for (int j = 0; j < migrants && received[destinations[i]] < dest.size() / 2; j++)
+                dest.immigrate(dest.size() - 1 - received[destinations[i]]++, emigrants.get(j), costs[j]);
+        }
+    }
+}
@@ -19,15 +19,16 @@
 package genetic;
 
 import genetic.agent.Agent;
+import genetic.evaluation.Evaluator;
 import genetic.gradient.Gradient;
 import genetic.population.Population;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Runtime.getRuntime;
 import static java.util.Objects.requireNonNull;
@@ -69,49 +70,213 @@ public interface Simulation<T extends Agent<T>>
      * @param generator Random sequence generator
      * @param gradient Population gradient for genetic diversity
      * @param multiThreaded True if all CPU cores should be utilized
+     * @return Outcome of the simulation
      */
-    default void run(final Population<T> pop, final int generations, final Random generator,
+    default SimulationResult<T> run(final Population<T> pop, final int generations, final Random generator,
                      final Gradient<T> gradient, final boolean multiThreaded)
+    {
+        final int numAgents = requireNonNull(pop).size();
+        final int numThreads = multiThreaded ? max(1, min(getRuntime().availableProcessors(), numAgents)) : 1;
+        final ExecutorService es = Executors.newFixedThreadPool(numThreads);
+        try { return run(pop, generations, generator, gradient, es, numThreads); }
+        finally { es.shutdown(); }
+    }
+
+    /**
+     * Performs a simulation on the specified population
+     *
+     * Fitness evaluations are distributed across the specified executor service.
+     * The executor service is not shut down once the simulation completes, and
+     * therefore may be re-used across back-to-back simulations without re-spawning threads.
+     *
+     * @param pop Population of agents
+     * @param generations Generations to iterate before stopping
+     * @param generator Random sequence generator
+     * @param gradient Population gradient for genetic diversity
+     * @param executor Executor service to perform fitness evaluations on
+     * @param numThreads Number of tasks in which fitness evaluations are divided into
+     * @return Outcome of the simulation
+     * @see Simulation#run(Population, int, Random, Gradient, boolean)
+     */
+    default SimulationResult<T> run(final Population<T> pop, final int generations, final Random generator,
+                                    final Gradient<T> gradient, final ExecutorService executor,
+                                    final int numThreads)
+    {
+        return run(pop, generations, generator, gradient, Evaluator.partitioned(executor, numThreads));
+    }
+
+    /**
+     * Performs a simulation on the specified population
+     *
+     * Fitness evaluations are scheduled according to the specified evaluator.
+     *
+     * @param pop Population of agents
+     * @param generations Generations to iterate before stopping
+     * @param generator Random sequence generator
+     * @param gradient Population gradient for genetic diversity
+     * @param evaluator Strategy for scheduling fitness evaluations
+     * @return Outcome of the simulation
+     * @see Simulation#run(Population, int, Random, Gradient, boolean)
+     * @see Evaluator
+     */
+    default SimulationResult<T> run(final Population<T> pop, final int generations, final Random generator,
+                                    final Gradient<T> gradient, final Evaluator evaluator)
+    {
+        return run(pop, generations, generator, gradient, evaluator, new CancellationToken());
+    }
+
+    /**
+     * Performs a simulation on the specified population, until completed or cancelled
+     *
+     * Cancellation is checked between generations, and interrupts fitness evaluations in-flight.
+     * Should the simulation be cancelled mid-generation, the generation is abandoned
+     * and its fitness costs are left partially evaluated. Abandoned generations are
+     * neither broadcast nor counted as completed.
+     * Interrupting the calling thread also stops the simulation, in which case the
+     * thread's interrupt status is preserved.
+     *
+     * @param pop Population of agents
+     * @param generations Generations to iterate before stopping
+     * @param generator Random sequence generator
+     * @param gradient Population gradient for genetic diversity
+     * @param evaluator Strategy for scheduling fitness evaluations
+     * @param token Token which cancels the simulation, e.g. once a time budget has elapsed
+     * @return Outcome of the simulation, containing the last completed generation
+     * @see Simulation#run(Population, int, Random, Gradient, boolean)
+     * @see CancellationToken#withBudget(java.time.Duration)
+     */
+    default SimulationResult<T> run(final Population<T> pop, final int generations, final Random generator,
+                                    final Gradient<T> gradient, final Evaluator evaluator,
+                                    final CancellationToken token)
+    {
+        return run(pop, generations, generator, gradient, evaluator, StoppingCriterion.NEVER, token);
+    }
+
+    /**
+     * Performs a simulation on the specified population, until completed, converged, or cancelled
+     *
+     * The stopping criterion is consulted each generation, once fitness costs have been broadcast.
+     * Should the criterion be met, the simulation stops before the population is sorted or re-populated,
+     * such that the fitness costs of the population remain valid.
+     * The best agent is retained as a copy of its genes; 'initAgent' is not called to hold it,
+     * such that no storage of the population (e.g. its genome arena) is consumed.
+     *
+     * @param pop Population of agents
+     * @param generations Generations to iterate before stopping
+     * @param generator Random sequence generator
+     * @param gradient Population gradient for genetic diversity
+     * @param evaluator Strategy for scheduling fitness evaluations
+     * @param criterion Criterion which stops the simulation early, e.g. once the population has converged
+     * @param token Token which cancels the simulation, e.g. once a time budget has elapsed
+     * @return Outcome of the simulation
+     * @see Simulation#run(Population, int, Random, Gradient, Evaluator, CancellationToken)
+     * @see StoppingCriterion
+     */
+    default SimulationResult<T> run(final Population<T> pop, final int generations, final Random generator,
+                                    final Gradient<T> gradient, final Evaluator evaluator,
+                                    final StoppingCriterion criterion, final CancellationToken token)
     {
         requireNonNull(generator);
+        requireNonNull(pop);
+        requireNonNull(evaluator);
+        requireNonNull(criterion);
         if (generations < 0) throw new IllegalArgumentException("Generation parameter must be positive");
 
-        /* Separate cost function work across multiple threads */
-        final int numAgents = requireNonNull(pop).size();
-        final int numThreads = multiThreaded ? min(getRuntime().availableProcessors(), numAgents) : 1;
-        final int agentsPerThread = numAgents / numThreads;
-        
-        for (int gen = 1; gen <= generations; gen++)
+        final long start = System.nanoTime();
+        int completed = 0;
+        boolean converged = false;
+        DoubleSummaryStatistics stats = null;
+        int[] bestWeights = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        requireNonNull(token).attach();
+        try
+        {
+            while (completed < generations && !token.isCancelled())
+            {
+                pop.collapseDuplicates();
+                evaluator.evaluate(pop);
+                pop.expandDuplicates();
+
+                /* Broadcast the performance of the current generation */
+                stats = pop.costEvaluation();
+                genCostStatsCallback(stats, ++completed);
+
+                /* Keep a copy of the best agent, as it may be destroyed in later generations */
+                final double[] costs = pop.getFitnessCosts();
+                int best = -1;
+                for (int i = 0; i < costs.length; i++)
+                    if (costs[i] < bestCost) bestCost = costs[best = i];
+                if (best >= 0) bestWeights = copyGenes(pop.getPopulation().get(best));
+
+                if (converged = criterion.test(pop, stats, completed)) break;
+
+                if (gradient.requiresTotalOrder()) evaluator.sort(pop);
+                else pop.partitionPopulation();
+                gradient.apply(pop);
+                pop.repopulate();
+            }
+        }
+        catch (final InterruptedException e)
+        {
+            // Interrupts not caused by the token belong to the caller, and must be preserved
+            if (!token.isCancelled()) Thread.currentThread().interrupt();
+        }
+        finally { token.detach(); }
+
+        return new SimulationResult<>(bestWeights, bestCost, stats, completed, Duration.ofNanos(System.nanoTime() - start),
+                !converged && completed < generations, converged);
+    }
+
+    /**
+     * Performs a pipelined simulation on the specified population
+     *
+     * Rather than evaluating the entire population at the start of each generation,
+     * children are evaluated as soon as they are birthed during re-population.
+     * Evaluation of the next generation overlaps with re-population of the current.
+     * Agents which survive a generation are not re-evaluated, retaining their fitness
+     * costs from prior generations. Therefore, the fitness function should be deterministic.
+     * Interrupting the calling thread stops the simulation, preserving the thread's interrupt status.
+     *
+     * @param pop Population of agents
+     * @param generations Generations to iterate before stopping
+     * @param generator Random sequence generator
+     * @param gradient Population gradient for genetic diversity
+     * @param executor Executor service to perform fitness evaluations on
+     * @see Simulation#run(Population, int, Random, Gradient, boolean)
+     * @see Population#repopulate(ExecutorService)
+     */
+    default void runPipelined(final Population<T> pop, final int generations, final Random generator,
+                              final Gradient<T> gradient, final ExecutorService executor)
+    {
+        requireNonNull(generator);
+        requireNonNull(pop);
+        requireNonNull(executor);
+        if (generations < 0) throw new IllegalArgumentException("Generation parameter must be positive");
+
+        try
         {
-            final ExecutorService es = Executors.newFixedThreadPool(numThreads);
-            final List<Future<?>> results = new ArrayList<>(numThreads);
-            for (int i = 0; i < numThreads; i++)
+            if (generations > 0) Evaluator.perAgent(executor).evaluate(pop);
+            for (int gen = 1; gen <= generations; gen++)
             {
-                final int j = i; // i must be final for anonymous inner class to use it
-                results.add(es.submit(() ->
-                {
-                    final int startInc = j * agentsPerThread;
-                    final int endExc = startInc + agentsPerThread
-                            /* In case work load is not evenly divisible, last thread picks up the slack */
-                            + (j + 1 >= numThreads ? numAgents - agentsPerThread * numThreads : 0);
-                    for (int k = startInc; k < endExc; k++)
-                        pop.evaluateFitness(k);
-                }));
+                /* Broadcast the performance of the current generation */
+                genCostStatsCallback(pop.costEvaluation(), gen);
+
+                if (gradient.requiresTotalOrder()) pop.sortPopulation();
+                else pop.partitionPopulation();
+                gradient.apply(pop);
+                // Children of the final generation are not evaluated, as they will not be assessed
+                if (gen < generations) pop.repopulate(executor);
+                else pop.repopulate();
             }
-            
-            /* Ensure each thread completes normally */
-            for (final Future<?> result : results)
-                try { result.get(); }
-                catch (final ExecutionException e) { throw new RuntimeException(e); }
-                catch (final InterruptedException ignored) { }
-            es.shutdown();
-            
-            /* Broadcast the performance of the current generation */
-            genCostStatsCallback(pop.costEvaluation(), gen);
-
-            pop.sortPopulation();
-            gradient.apply(pop);
-            pop.repopulate();
         }
+        catch (final InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    /* Copies the genes of an agent, as the agent's own storage may be re-used */
+    private static int[] copyGenes(final Agent<?> agent)
+    {
+        final int[] genes = new int[agent.geneCount()];
+        for (int i = 0; i < genes.length; i++) genes[i] = agent.getGene(i);
+        return genes;
     }
 }
@@ -0,0 +1,128 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic;
+
+import genetic.agent.Agent;
+
+import java.time.Duration;
+import java.util.DoubleSummaryStatistics;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+
+/**
+ * Outcome of a simulation
+ *
+ * Describes how far a simulation progressed before it stopped, and the best agent it found.
+ * The best agent is retained as a copy of its genes, rather than as an agent, such that
+ * retaining it does not occupy storage of the population (e.g. a slot within its genome arena).
+ *
+ * @param <T> Type of agent
+ */
+public final class SimulationResult<T extends Agent<T>>
+{
+    private final int[] bestGenes;
+    private final double bestCost;
+    private final DoubleSummaryStatistics stats;
+    private final int generations;
+    private final Duration elapsed;
+    private final boolean cancelled, converged;
+
+    /**
+     * @param bestGenes Copy of the genes of the best agent found, or null if no generations were completed
+     * @param bestCost Fitness cost of the best agent
+     * @param stats Statistics of the costs for the last completed generation, or null if none were completed
+     * @param generations Number of generations which were completed
+     * @param elapsed Wall-clock time the simulation ran for
+     * @param cancelled True if the simulation was cancelled before all generations were completed
+     * @param converged True if the simulation was stopped by its stopping criterion
+     */
+    public SimulationResult(final int[] bestGenes, final double bestCost, final DoubleSummaryStatistics stats,
+                            final int generations, final Duration elapsed,
+                            final boolean cancelled, final boolean converged)
+    {
+        if (generations < 0) throw new IllegalArgumentException("Generation count must be non-negative");
+        this.bestGenes = bestGenes;
+        this.bestCost = bestCost;
+        this.stats = stats;
+        this.generations = generations;
+        this.elapsed = requireNonNull(elapsed);
+        this.cancelled = cancelled;
+        this.converged = converged;
+    }
+
+    /**
+     * @return Copy of the genes of the best agent found across all completed generations,
+     * or null if none were completed
+     */
+    public int[] getBestGenes() { return bestGenes == null ? null : bestGenes.clone(); }
+
+    /**
+     * Constructs a copy of the best agent found across all completed generations
+     *
+     * The agent is constructed by the specified factory, and then assigned the best agent's genes.
+     * The factory decides where the agent's genes reside, e.g. within an arena other than the population's.
+     *
+     * @param factory Constructs an agent with the same number of genes as the population's agents
+     * @return Copy of the best agent, or null if no generations were completed
+     */
+    public T getBest(final Supplier<? extends T> factory)
+    {
+        requireNonNull(factory);
+        if (bestGenes == null) return null;
+        final T best = requireNonNull(factory.get());
+        if (best.geneCount() != bestGenes.length)
+            throw new IllegalArgumentException("Agent must have the same number of genes as the best agent");
+        for (int i = 0; i < bestGenes.length; i++) best.setGene(i, bestGenes[i]);
+        return best;
+    }
+
+    /**
+     * @return Fitness cost of the best agent, or infinity if no generations were completed
+     */
+    public double getBestCost() { return bestCost; }
+
+    /**
+     * @return Statistics of the costs for the last completed generation, or null if none were completed
+     */
+    public DoubleSummaryStatistics getFinalStats() { return stats; }
+
+    /**
+     * A generation is complete once its fitness costs have been evaluated and broadcast.
+     *
+     * @return Number of the last completed generation, or zero if none were completed
+     */
+    public int getGenerations() { return generations; }
+
+    /**
+     * @return Wall-clock time the simulation ran for
+     */
+    public Duration getElapsed() { return elapsed; }
+
+    /**
+     * @return True if the simulation was cancelled before all generations were completed
+     */
+    public boolean isCancelled() { return cancelled; }
+
+    /**
+     * @return True if the simulation was stopped by its stopping criterion
+     */
+    public boolean isConverged() { return converged; }
+}
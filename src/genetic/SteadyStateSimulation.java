@@ -0,0 +1,137 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic;
+
+import genetic.agent.Agent;
+import genetic.evaluation.Evaluator;
+import genetic.population.Population;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+
+/**
+ * Defines a steady-state simulation, in which there is no generation barrier
+ *
+ * Rather than evaluating, culling, and repopulating the entire population at once,
+ * a single child is birthed each time an evaluation completes. Each child replaces
+ * a poor performing agent as soon as its fitness is known, keeping every worker busy.
+ *
+ * @param <T> Type of agent
+ */
+public interface SteadyStateSimulation<T extends Agent<T>> extends Simulation<T>
+{
+    /**
+     * Performs a steady-state simulation on the specified population
+     *
+     * Initially, every agent in the population is evaluated. Afterwards:
+     *      * Two parents are selected from the population via binary tournaments
+     *      * A child is birthed from the parents and handed off for evaluation
+     *      * Once evaluated, the child replaces the loser of a reverse binary tournament
+     *      * Another child is birthed, keeping the number of in-flight evaluations constant
+     * Every time half of the population has been replaced, a generation is considered to have passed.
+     * The generation's statistics are then broadcast to the cost statistics callback.
+     * Interrupting the calling thread stops the simulation, preserving the thread's interrupt status.
+     *
+     * @param pop Population of agents
+     * @param generations Generation equivalents to iterate before stopping
+     * @param generator Random sequence generator, used for parental and replacement selection
+     * @param executor Executor service to perform fitness evaluations on
+     * @param numThreads Number of fitness evaluations which are in-flight at once
+     * @see Simulation#genCostStatsCallback(DoubleSummaryStatistics, int)
+     */
+    default void runSteadyState(final Population<T> pop, final int generations, final Random generator,
+                                final ExecutorService executor, final int numThreads)
+    {
+        requireNonNull(generator);
+        requireNonNull(pop);
+        if (generations < 0) throw new IllegalArgumentException("Generation parameter must be positive");
+        if (generations == 0 || pop.size() == 0) return;
+
+        final List<T> agents = pop.getPopulation();
+        final double[] costs = pop.getFitnessCosts();
+        final int birthsPerGen = pop.size() / 2;
+        final long births = (long)birthsPerGen * (generations - 1);
+        final CompletionService<Double> cs = new ExecutorCompletionService<>(executor);
+        final Map<Future<Double>, T> inFlight = new HashMap<>(numThreads * 2);
+        try
+        {
+            Evaluator.partitioned(executor, numThreads).evaluate(pop);
+            genCostStatsCallback(pop.costEvaluation(), 1);
+
+            long submitted = 0, completed = 0;
+            for (; submitted < min(numThreads, births); submitted++)
+                submitChild(pop, generator, cs, inFlight);
+            while (completed < births)
+            {
+                final Future<Double> result = cs.take();
+                final T child = inFlight.remove(result);
+                final double cost = result.get();
+
+                /* The child replaces the worse of two randomly selected agents */
+                final int a = generator.nextInt(costs.length), b = generator.nextInt(costs.length);
+                final int loser = costs[a] >= costs[b] ? a : b;
+                pop.cull(agents.get(loser));
+                agents.set(loser, child);
+                costs[loser] = cost;
+
+                if (++completed % birthsPerGen == 0)
+                    /* Broadcast the performance of the current generation equivalent */
+                    genCostStatsCallback(pop.costEvaluation(), (int)(completed / birthsPerGen) + 1);
+                if (submitted < births)
+                {
+                    submitChild(pop, generator, cs, inFlight);
+                    submitted++;
+                }
+            }
+        }
+        catch (final ExecutionException e)
+        {
+            for (final Future<Double> result : inFlight.keySet()) result.cancel(true);
+            throw new RuntimeException(e);
+        }
+        catch (final InterruptedException e)
+        {
+            for (final Future<Double> result : inFlight.keySet()) result.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* Births a child from two tournament-selected parents and submits it for evaluation */
+    private void submitChild(final Population<T> pop, final Random generator,
+                             final CompletionService<Double> cs, final Map<Future<Double>, T> inFlight)
+    {
+        final int father = tournament(pop.getFitnessCosts(), generator);
+        int mother;
+        do mother = tournament(pop.getFitnessCosts(), generator); while (mother == father);
+        final List<T> agents = pop.getPopulation();
+        final T child = pop.spawn(agents.get(father), agents.get(mother));
+        inFlight.put(cs.submit(() -> pop.evaluateFitness(child)), child);
+    }
+
+    /* Selects the better of two randomly selected agents */
+    private static int tournament(final double[] costs, final Random generator)
+    {
+        final int a = generator.nextInt(costs.length), b = generator.nextInt(costs.length);
+        return costs[a] <= costs[b] ? a : b;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic;
+
+import genetic.population.Population;
+
+import java.util.DoubleSummaryStatistics;
+
+import static java.util.Objects.requireNonNull;
+
+
+/**
+ * Defines an assortment of stopping criteria
+ *
+ * A stopping criterion is consulted once per generation, after fitness costs have been broadcast.
+ * Criteria may track state across generations, and therefore should not be shared across simulations.
+ */
+public interface StoppingCriterion
+{
+    /**
+     * Never stops, the simulation runs for every generation
+     */
+    public static final StoppingCriterion NEVER = (pop, dss, generation) -> false;
+
+    /**
+     * Determines if the simulation should stop
+     *
+     * Fitness costs of the population are valid for the generation, but are not yet sorted.
+     *
+     * @param pop Population of agents, after fitness evaluation
+     * @param dss Statistics of the costs for the generation
+     * @param generation Current generation number
+     * @return True if the simulation should stop after the current generation
+     */
+    boolean test(final Population<?> pop, final DoubleSummaryStatistics dss, final int generation);
+
+    /**
+     * @param other Stopping criterion to combine with
+     * @return Stopping criterion which stops if either criterion would stop
+     */
+    default StoppingCriterion or(final StoppingCriterion other)
+    {
+        requireNonNull(other);
+        // Both criteria are always consulted, as either may be tracking state across generations
+        return (pop, dss, generation) -> test(pop, dss, generation) | other.test(pop, dss, generation);
+    }
+
+    /**
+     * Stops once the best fitness cost of a generation reaches the target cost
+     *
+     * @param target Fitness cost which is considered good enough, domain: [0, inf)
+     * @return Target cost stopping criterion
+     */
+    static StoppingCriterion targetCost(final double target)
+    {
+        if (target < 0) throw new IllegalArgumentException("Target cost must be non-negative");
+        return (pop, dss, generation) -> dss.getMin() <= target;
+    }
+
+    /**
+     * Stops once the best fitness cost has stagnated
+     *
+     * The best fitness cost stagnates if it has not improved by more than
+     * the tolerance over the specified number of consecutive generations.
+     *
+     * @param window Number of generations without improvement before stopping
+     * @param tolerance Improvements of this magnitude or smaller are not considered improvements
+     * @return Stagnation stopping criterion
+     */
+    static StoppingCriterion stagnation(final int window, final double tolerance)
+    {
+        if (window <= 0) throw new IllegalArgumentException("Window must be positive");
+        if (tolerance < 0) throw new IllegalArgumentException("Tolerance must be non-negative");
+        final double[] best = { Double.POSITIVE_INFINITY };
+        final int[] stagnant = { 0 }; // Generations since the best cost last improved
+        return (pop, dss, generation) ->
+        {
+            if (dss.getMin() < best[0] - tolerance)
+            {
+                best[0] = dss.getMin();
+                stagnant[0] = 0;
+            }
+            else stagnant[0]++;
+            return stagnant[0] >= window;
+        };
+    }
+
+    /**
+     * Stops once the variance of the fitness costs of a generation falls to the threshold
+     *
+     * A low variance indicates the population has converged on similar behavior.
+     *
+     * @param threshold Variance at which the population is considered converged, domain: [0, inf)
+     * @return Variance stopping criterion
+     */
+    static StoppingCriterion variance(final double threshold)
+    {
+        if (threshold < 0) throw new IllegalArgumentException("Threshold must be non-negative");
+        return (pop, dss, generation) ->
+        {
+            final double mean = dss.getAverage();
+            double sum = 0;
+            for (final double cost : pop.getFitnessCosts())
+                sum += (cost - mean) * (cost - mean);
+            return dss.getCount() > 0 && sum / dss.getCount() <= threshold;
+        };
+    }
+}
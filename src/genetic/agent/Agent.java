@@ -19,8 +19,10 @@
 package genetic.agent;
 
 import genetic.gene.Crossover;
+import genetic.gene.Mutation;
 
 import java.util.Random;
+import java.util.SplittableRandom;
 
 import static java.util.Objects.requireNonNull;
 
@@ -48,6 +50,35 @@ public interface Agent<T>
      */
     int[] getWeights();
 
+    /**
+     * @return Number of genes (weights) of the agent
+     * @see Agent#getWeights()
+     */
+    default int geneCount()
+    {
+        return getWeights().length;
+    }
+
+    /**
+     * @param index Index of the gene
+     * @return Gene (weight) at the specified index
+     * @see Agent#getWeights()
+     */
+    default int getGene(final int index)
+    {
+        return getWeights()[index];
+    }
+
+    /**
+     * @param index Index of the gene
+     * @param gene Gene (weight) to assign at the specified index
+     * @see Agent#getWeights()
+     */
+    default void setGene(final int index, final int gene)
+    {
+        getWeights()[index] = gene;
+    }
+
     /**
      * Randomizes the agent's weights
      *
@@ -59,16 +90,36 @@ public interface Agent<T>
     default void randomizeWeights(final Random generator)
     {
         requireNonNull(generator);
-        final int[] weights = requireNonNull(getWeights());
-        for (int i = 0; i < weights.length; i++)
+        final int numGenes = geneCount();
+        for (int i = 0; i < numGenes; i++)
             /* Mask out any negative numbers of nextInt() */
-            weights[i] = generator.nextInt() & Integer.MAX_VALUE;
+            setGene(i, generator.nextInt() & Integer.MAX_VALUE);
+    }
+
+    /**
+     * Randomizes the agent's weights, from a splittable random sequence generator
+     *
+     * Each weight is randomized from [0, Integer.MAX_VALUE].
+     * Splittable generators are not shared between threads, such that
+     * many agents may be randomized in parallel without contention.
+     *
+     * @param generator Splittable random sequence generator
+     * @see Agent#randomizeWeights(Random)
+     */
+    default void randomizeWeights(final SplittableRandom generator)
+    {
+        requireNonNull(generator);
+        final int numGenes = geneCount();
+        for (int i = 0; i < numGenes; i++)
+            setGene(i, generator.nextInt() & Integer.MAX_VALUE);
     }
 
     /**
      * Inherits genes from two specified parents
      *
-     * Genes are distributed through uniform crossover
+     * Genes are distributed through uniform crossover.
+     * By default, the whole genome is crossed over in one call, directly into the array
+     * returned by 'getWeights'. Agents whose weights are copies must override this method.
      * 
      * @param mother Mother to inherit genes from
      * @param father Father to inherit genes from
@@ -80,9 +131,27 @@ public interface Agent<T>
         checkParentalLegitimacy(father, mother);
         requireNonNull(generator);
         requireNonNull(cross);
-        final int[] weights = getWeights(), fWeights = father.getWeights(), mWeights = mother.getWeights();
-        for (int i = 0; i < weights.length; i++)
-            weights[i] = cross.perform(fWeights[i], mWeights[i], generator);
+        final int[] genes = getWeights();
+        final int[] fGenes = father.getWeights(), mGenes = mother.getWeights();
+        if (fGenes.length != genes.length || mGenes.length != genes.length)
+            throw new IllegalArgumentException("Parents must have the same number of genes as the child");
+        cross.perform(fGenes, mGenes, genes, generator);
+    }
+
+    /**
+     * Mutates the agent's genes
+     *
+     * By default, the whole genome is mutated in one call, directly within the array
+     * returned by 'getWeights'. Agents whose weights are copies must override this method.
+     *
+     * @param generator Random sequence generator
+     * @param mutator Mutation method for the genes
+     * @param mutationRate Rate in which mutations occur in genes [0.0, 1.0]
+     */
+    default void mutate(final Random generator, final Mutation mutator, final float mutationRate)
+    {
+        final int[] genes = getWeights();
+        requireNonNull(mutator).perform(genes, 0, genes.length, generator, mutationRate);
     }
 
     /* Ensure reproduction parameters are valid */
@@ -0,0 +1,235 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.agent;
+
+import genetic.gene.Crossover;
+import genetic.gene.Mutation;
+import genetic.population.GenomeArena;
+
+import java.util.Objects;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static java.util.Objects.requireNonNull;
+
+
+/**
+ * Defines an agent whose genes reside within a genome arena
+ *
+ * Rather than owning an array of weights, the agent owns a slot within an arena shared
+ * by the whole population. Gene accessors read and write the arena directly.
+ * Performance sensitive code, such as fitness functions, should stream through
+ * the arena from the agent's offset rather than calling 'getWeights', which copies.
+ *
+ * @param <T> Concrete agent type
+ * @see GenomeArena
+ */
+public abstract class ArenaAgent<T> implements Agent<T>
+{
+    /* Genomes of agents which cannot be crossed over or mutated in place, owned by each thread */
+    private static final ThreadLocal<int[][]> SCRATCH = ThreadLocal.withInitial(() -> new int[3][0]);
+
+    private final GenomeArena arena;
+    private int slot;
+
+    /**
+     * Constructs an agent, allocating a slot within the arena
+     *
+     * @param arena Arena to store the agent's genes within
+     */
+    protected ArenaAgent(final GenomeArena arena)
+    {
+        this.arena = requireNonNull(arena);
+        slot = arena.allocate();
+    }
+
+    /**
+     * Retrieves a copy of the agent's weights
+     *
+     * Modifying the returned array does not modify the agent.
+     *
+     * @return Copy of the weights of the agent
+     * @see Agent#setGene(int, int)
+     */
+    @Override public int[] getWeights()
+    {
+        final int[] weights = new int[arena.getGenomeLength()];
+        arena.read(offset(), weights);
+        return weights;
+    }
+
+    @Override public int geneCount()
+    {
+        return arena.getGenomeLength();
+    }
+
+    @Override public int getGene(final int index)
+    {
+        return arena.get(offset() + Objects.checkIndex(index, arena.getGenomeLength()));
+    }
+
+    @Override public void setGene(final int index, final int gene)
+    {
+        arena.set(offset() + Objects.checkIndex(index, arena.getGenomeLength()), gene);
+    }
+
+    /**
+     * Inherits genes from two specified parents, writing them directly into the arena
+     *
+     * Should the parents share the agent's arena, and the arena reside on the heap,
+     * the whole genome is crossed over in place. Otherwise, the parents' genomes are copied
+     * into scratch arrays, crossed over as whole genomes, and the child's genome is copied back.
+     * Either way, genome-level crossovers operate upon the whole genome, never gene by gene.
+     *
+     * @param father Father to inherit genes from
+     * @param mother Mother to inherit genes from
+     * @param generator Random sequence generator
+     * @param cross Crossover method for inheritance
+     * @see Agent#inherit(Agent, Agent, Random, Crossover)
+     */
+    @Override public void inherit(final Agent<T> father, final Agent<T> mother, final Random generator,
+                                  final Crossover cross)
+    {
+        if (requireNonNull(mother) == requireNonNull(father))
+            throw new IllegalArgumentException("Father and mother must be unique");
+        if (father == this || mother == this)
+            throw new IllegalArgumentException("Child agent cannot also be its own parent");
+        requireNonNull(generator);
+        requireNonNull(cross);
+        final int length = arena.getGenomeLength();
+        if (arena.hasArray() && sharesArena(father) && sharesArena(mother))
+        {
+            cross.perform(arena.genes(), ((ArenaAgent<?>)father).offset(), arena.genes(),
+                    ((ArenaAgent<?>)mother).offset(), arena.genes(), offset(), length, generator, 0.5f);
+            return;
+        }
+        if (father.geneCount() != length || mother.geneCount() != length)
+            throw new IllegalArgumentException("Parents must have the same number of genes as the child");
+        final int[][] scratch = scratch(length);
+        final int[] fGenes = copyGenes(father, scratch[0]), mGenes = copyGenes(mother, scratch[1]);
+        cross.perform(fGenes, mGenes, scratch[2], generator);
+        arena.write(offset(), scratch[2]);
+    }
+
+    /**
+     * Mutates the agent's genes, directly within the arena
+     *
+     * Should the arena reside on the heap, the whole genome is mutated in place.
+     * Otherwise, the genome is copied into a scratch array, mutated as a whole, and copied back.
+     *
+     * @param generator Random sequence generator
+     * @param mutator Mutation method for the genes
+     * @param mutationRate Rate in which mutations occur in genes [0.0, 1.0]
+     * @see Agent#mutate(Random, Mutation, float)
+     */
+    @Override public void mutate(final Random generator, final Mutation mutator, final float mutationRate)
+    {
+        requireNonNull(mutator);
+        final int length = arena.getGenomeLength();
+        if (arena.hasArray())
+        {
+            mutator.perform(arena.genes(), offset(), length, generator, mutationRate);
+            return;
+        }
+        final int[] genes = scratch(length)[0];
+        arena.read(offset(), genes);
+        mutator.perform(genes, 0, length, generator, mutationRate);
+        arena.write(offset(), genes);
+    }
+
+    /* Copies an agent's genes into the scratch array, reading directly from its arena where possible */
+    private static int[] copyGenes(final Agent<?> agent, final int[] scratch)
+    {
+        if (!(agent instanceof ArenaAgent)) return agent.getWeights();
+        final ArenaAgent<?> arenaAgent = (ArenaAgent<?>)agent;
+        arenaAgent.arena.read(arenaAgent.offset(), scratch);
+        return scratch;
+    }
+
+    /* Retrieves the calling thread's scratch arrays for a father, a mother & a child of the specified length */
+    private static int[][] scratch(final int length)
+    {
+        int[][] scratch = SCRATCH.get();
+        if (scratch[0].length != length)
+        {
+            scratch = new int[][] { new int[length], new int[length], new int[length] };
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    /* Whether the agent's genes reside within the same arena as this agent's */
+    private boolean sharesArena(final Agent<?> agent)
+    {
+        return agent instanceof ArenaAgent && ((ArenaAgent<?>)agent).arena == arena;
+    }
+
+    /**
+     * Randomizes the agent's weights, writing them directly into the arena
+     *
+     * @param generator Splittable random sequence generator
+     * @see Agent#randomizeWeights(SplittableRandom)
+     */
+    @Override public void randomizeWeights(final SplittableRandom generator)
+    {
+        requireNonNull(generator);
+        final int from = offset(), to = from + arena.getGenomeLength();
+        for (int i = from; i < to; i++)
+            arena.set(i, generator.nextInt() & Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return Array containing the agent's genes, beginning at the agent's offset
+     * @throws UnsupportedOperationException If the arena does not reside on the heap
+     * @see ArenaAgent#offset()
+     */
+    public final int[] genes()
+    {
+        return arena.genes();
+    }
+
+    /**
+     * @return Arena which the agent's genes reside within
+     */
+    public final GenomeArena arena()
+    {
+        return arena;
+    }
+
+    /**
+     * @return Offset of the agent's first gene, within the arena
+     */
+    public final int offset()
+    {
+        if (slot < 0) throw new IllegalStateException("Agent has been destroyed");
+        return arena.offset(slot);
+    }
+
+    /**
+     * Releases the agent's slot, allowing it to be re-used by another agent
+     *
+     * The agent must not be used once released.
+     */
+    public final void release()
+    {
+        if (slot < 0) throw new IllegalStateException("Agent has already been destroyed");
+        arena.release(slot);
+        slot = -1;
+    }
+}
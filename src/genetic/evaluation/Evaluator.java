@@ -0,0 +1,227 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.evaluation;
+
+import genetic.population.Population;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+import static util.Tasks.awaitAll;
+import static util.Tasks.forEachRange;
+import static util.Tasks.submit;
+
+
+/**
+ * Defines an assortment of fitness evaluation strategies
+ *
+ * An evaluator determines how the fitness function of a population is
+ * scheduled across threads. Every agent in the population must have its
+ * fitness cost assigned by the time the evaluator returns.
+ * Work is handed to the population in ranges, such that batch-aware
+ * populations may amortize setup costs across each range.
+ * Agents whose fitness costs are memoized are skipped by the population.
+ *
+ * @see Population#evaluateStale(int, int)
+ */
+public interface Evaluator
+{
+    /**
+     * Serial evaluation
+     *
+     * Every agent is evaluated on the calling thread, in order.
+     */
+    public static final Evaluator SERIAL = pop ->
+    {
+        pop.evaluateStale(0, pop.size());
+        // Evaluation stops early once interrupted, leaving the remaining agents unevaluated
+        if (Thread.interrupted()) throw new InterruptedException();
+    };
+
+    /**
+     * Evaluates the fitness of every agent in the population
+     *
+     * If interrupted, in-flight fitness evaluations are interrupted and pending ones are abandoned.
+     * The population's fitness costs are then left partially evaluated. Evaluations already in-flight
+     * are waited upon before returning, such that none write to the population afterwards.
+     *
+     * @param pop Population to evaluate
+     * @throws InterruptedException If the calling thread is interrupted while evaluating
+     */
+    void evaluate(final Population<?> pop) throws InterruptedException;
+
+    /**
+     * Sorts the population by their fitness scores
+     *
+     * Evaluators which own threads may sort across them, rather than on the calling thread.
+     * By default, the population is sorted on the calling thread.
+     *
+     * @param pop Population to sort
+     * @throws InterruptedException If the calling thread is interrupted while sorting
+     * @see Population#sortPopulation()
+     */
+    default void sort(final Population<?> pop) throws InterruptedException
+    {
+        pop.sortPopulation();
+    }
+
+    /**
+     * Partitioned evaluation
+     *
+     * The population is divided into contiguous ranges, one range per thread, each holding
+     * an even share of the agents which require evaluation. Agents whose fitness costs are
+     * memoized or shared with a duplicate are not counted, such that every thread remains busy.
+     * In case the work load is not evenly divisible, the last thread picks up the slack.
+     * Best suited for fitness functions whose cost is uniform across agents.
+     *
+     * @param executor Executor service to perform fitness evaluations on
+     * @param numThreads Number of ranges in which the population is divided into
+     * @return Partitioned evaluator
+     */
+    static Evaluator partitioned(final ExecutorService executor, final int numThreads)
+    {
+        requireNonNull(executor);
+        if (numThreads <= 0) throw new IllegalArgumentException("Thread count must be positive");
+        return sortingOn(executor, numThreads, pop -> forEachRange(executor, requireNonNull(pop).staleRanges(numThreads),
+                (startInc, endExc, thread) -> pop.evaluateStale(startInc, endExc)));
+    }
+
+    /**
+     * Chunked evaluation
+     *
+     * The population is divided into chunks of the specified grain size.
+     * Each thread claims the next unclaimed chunk as soon as it finishes its previous one.
+     * Threads remain busy until the last chunk is claimed, regardless of how long each agent takes.
+     * Smaller grain sizes balance the load more evenly, at the cost of more frequent claims.
+     *
+     * @param executor Executor service to perform fitness evaluations on
+     * @param numThreads Number of threads claiming chunks
+     * @param grainSize Number of agents per chunk
+     * @return Chunked evaluator
+     */
+    static Evaluator chunked(final ExecutorService executor, final int numThreads, final int grainSize)
+    {
+        requireNonNull(executor);
+        if (numThreads <= 0) throw new IllegalArgumentException("Thread count must be positive");
+        if (grainSize <= 0) throw new IllegalArgumentException("Grain size must be positive");
+        return sortingOn(executor, numThreads, pop ->
+        {
+            final int numAgents = requireNonNull(pop).size();
+            final AtomicInteger cursor = new AtomicInteger();
+            final List<Future<?>> results = new ArrayList<>(numThreads);
+            for (int i = 0; i < numThreads; i++)
+                results.add(submit(executor, () ->
+                {
+                    /* Stop claiming chunks once the evaluation is cancelled */
+                    for (int start = cursor.getAndAdd(grainSize);
+                         start < numAgents && !Thread.currentThread().isInterrupted();
+                         start = cursor.getAndAdd(grainSize))
+                        pop.evaluateStale(start, min(numAgents, start + grainSize));
+                }));
+            awaitAll(results);
+        });
+    }
+
+    /**
+     * Per-agent evaluation
+     *
+     * Every agent is submitted to the executor service as its own task.
+     * Intended for executor services which spawn a thread per task,
+     * allowing many blocking fitness evaluations to be in-flight at once.
+     *
+     * @param executor Executor service to perform fitness evaluations on
+     * @return Per-agent evaluator
+     * @see Evaluator#virtualThreads()
+     */
+    static Evaluator perAgent(final ExecutorService executor)
+    {
+        requireNonNull(executor);
+        return pop ->
+        {
+            final int numAgents = requireNonNull(pop).size();
+            final List<Future<?>> results = new ArrayList<>(numAgents);
+            for (int i = 0; i < numAgents; i++)
+            {
+                final int k = i; // i must be final for anonymous inner class to use it
+                results.add(submit(executor, () -> pop.evaluateStale(k, k + 1)));
+            }
+            awaitAll(results);
+        };
+    }
+
+    /**
+     * Virtual thread evaluation
+     *
+     * Every agent is evaluated on its own virtual thread, such that fitness
+     * functions which block on I/O are not limited by the number of CPU cores.
+     * Virtual threads are only available on Java 21 or later.
+     *
+     * @return Virtual thread evaluator
+     * @throws UnsupportedOperationException If the runtime does not support virtual threads
+     */
+    static Evaluator virtualThreads()
+    {
+        final MethodHandle factory;
+        try
+        {
+            factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        }
+        catch (final NoSuchMethodException | IllegalAccessException e)
+        {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this runtime", e);
+        }
+        return pop ->
+        {
+            final ExecutorService es;
+            try { es = (ExecutorService)factory.invokeExact(); }
+            catch (final Throwable t) { throw new IllegalStateException(t); }
+            try { perAgent(es).evaluate(pop); }
+            finally { es.shutdown(); }
+        };
+    }
+
+    /* Sorts populations across the same threads which evaluate them */
+    private static Evaluator sortingOn(final ExecutorService executor, final int numThreads,
+                                       final Evaluator evaluator)
+    {
+        return new Evaluator()
+        {
+            @Override public void evaluate(final Population<?> pop) throws InterruptedException
+            {
+                evaluator.evaluate(pop);
+            }
+
+            @Override public void sort(final Population<?> pop) throws InterruptedException
+            {
+                pop.sortPopulation(executor, numThreads);
+            }
+        };
+    }
+
+}
@@ -18,8 +18,11 @@
 
 package genetic.gene;
 
+import java.util.Objects;
 import java.util.Random;
 
+import static genetic.gene.GeneKernels.bernoulliMask;
+import static genetic.gene.GeneKernels.likelihood;
 import static java.util.Objects.requireNonNull;
 import static util.Utilities.validateDomain;
 
@@ -29,7 +32,10 @@ import static util.Utilities.validateDomain;
  *
  * Crossover handles inheritance of genes from a mother and father to a child
  *
- * TODO: Implement Single-point, two-point, uniform, arithmetic, simulated binary, blend, discrete crossovers
+ * Bitwise crossovers (uniform, single-point, two-point) mix the bits of each gene.
+ * Whole genomes are crossed over gene by gene, or in segments, rather than bit by bit.
+ * Numeric crossovers (arithmetic, simulated binary, blend) treat genes as numbers,
+ * yielding children clamped to the domain of genes: [0, Integer.MAX_VALUE].
  */
 public interface Crossover
 {
@@ -39,37 +45,202 @@ public interface Crossover
      * Evenly distributes bits from the father and mother, randomly.
      * For each bit, either the father or the mother is selected.
      * The selected parent's bit is then copied to the child gene.
+     *
+     * Rather than drawing a random number per bit, a mask of the bits selected from
+     * the father is drawn for all bits at once. For a bias of 0.5, a single draw suffices.
+     * Whole genomes are blended with their masks via the Vector API, when available.
+     *
+     * @see GeneKernels
      */
-    public static final Crossover UNIFORM = (father, mother, generator, bias) ->
+    public static final Crossover UNIFORM = new Crossover()
     {
-        if (father < 0 || mother < 0)
-            throw new IllegalArgumentException("Parental genes must be non-negative.");
-        validateDomain(bias, 0.0f, 1.0f);
-        requireNonNull(generator);
-        /* Crossover father and mother into the child */
-        int a = father, b = mother, c = 0;
-        for (int i = 0; a != 0 || b != 0; i++)
+        @Override public int perform(final int father, final int mother, final Random generator, final float bias)
+        {
+            checkGenes(father, mother, generator, bias);
+            final int mask = bernoulliMask(generator, likelihood(bias));
+            /* Crossover father and mother into the child */
+            return (father & mask) | (mother & ~mask);
+        }
+
+        @Override public void perform(final int[] father, final int fatherOffset, final int[] mother,
+                                      final int motherOffset, final int[] child, final int childOffset,
+                                      final int length, final Random generator, final float bias)
+        {
+            checkGenomes(father, fatherOffset, mother, motherOffset, child, childOffset, length, generator, bias);
+            final int q = likelihood(bias);
+            final GeneKernels kernels = GeneKernels.VECTOR;
+            if (kernels == null)
+            {
+                for (int i = 0; i < length; i++)
+                {
+                    final int mask = bernoulliMask(generator, q);
+                    child[childOffset + i] = (father[fatherOffset + i] & mask) | (mother[motherOffset + i] & ~mask);
+                }
+                return;
+            }
+            final int[] masks = GeneKernels.scratch(length);
+            for (int i = 0; i < length; i++)
+                masks[i] = bernoulliMask(generator, q);
+            kernels.blend(father, fatherOffset, mother, motherOffset, masks, child, childOffset, length);
+        }
+    };
+
+    /**
+     * Single-point crossover
+     *
+     * A single cut point is drawn, splitting the child into a head and a tail.
+     * The head is inherited from one parent, the tail from the other.
+     * The father provides the head with a likelihood of the bias.
+     * Within a gene, bits below the cut form the head. Within a genome,
+     * genes before the cut form the head, and each segment is copied whole.
+     */
+    public static final Crossover SINGLE_POINT = new Crossover()
+    {
+        @Override public int perform(final int father, final int mother, final Random generator, final float bias)
+        {
+            checkGenes(father, mother, generator, bias);
+            final boolean fatherHead = generator.nextFloat() < bias;
+            final int head = (1 << generator.nextInt(Integer.SIZE)) - 1; // Bits below the cut
+            return fatherHead ? (father & head) | (mother & ~head) : (mother & head) | (father & ~head);
+        }
+
+        @Override public void perform(final int[] father, final int fatherOffset, final int[] mother,
+                                      final int motherOffset, final int[] child, final int childOffset,
+                                      final int length, final Random generator, final float bias)
+        {
+            checkGenomes(father, fatherOffset, mother, motherOffset, child, childOffset, length, generator, bias);
+            final boolean fatherHead = generator.nextFloat() < bias;
+            final int cut = generator.nextInt(length + 1);
+            final int[] head = fatherHead ? father : mother, tail = fatherHead ? mother : father;
+            final int headOffset = fatherHead ? fatherOffset : motherOffset;
+            final int tailOffset = fatherHead ? motherOffset : fatherOffset;
+            System.arraycopy(head, headOffset, child, childOffset, cut);
+            System.arraycopy(tail, tailOffset + cut, child, childOffset + cut, length - cut);
+        }
+    };
+
+    /**
+     * Two-point crossover
+     *
+     * Two cut points are drawn, splitting the child into a head, a middle, and a tail.
+     * The head and tail are inherited from one parent, the middle from the other.
+     * The father provides the head and tail with a likelihood of the bias.
+     * Within a gene, cuts split the bits of the gene. Within a genome,
+     * cuts split the genes of the genome, and each segment is copied whole.
+     */
+    public static final Crossover TWO_POINT = new Crossover()
+    {
+        @Override public int perform(final int father, final int mother, final Random generator, final float bias)
+        {
+            checkGenes(father, mother, generator, bias);
+            final boolean fatherOuter = generator.nextFloat() < bias;
+            final int a = generator.nextInt(Integer.SIZE), b = generator.nextInt(Integer.SIZE);
+            final int middle = ((1 << Math.max(a, b)) - 1) & ~((1 << Math.min(a, b)) - 1);
+            return fatherOuter ? (father & ~middle) | (mother & middle) : (mother & ~middle) | (father & middle);
+        }
+
+        @Override public void perform(final int[] father, final int fatherOffset, final int[] mother,
+                                      final int motherOffset, final int[] child, final int childOffset,
+                                      final int length, final Random generator, final float bias)
+        {
+            checkGenomes(father, fatherOffset, mother, motherOffset, child, childOffset, length, generator, bias);
+            final boolean fatherOuter = generator.nextFloat() < bias;
+            final int a = generator.nextInt(length + 1), b = generator.nextInt(length + 1);
+            final int from = Math.min(a, b), to = Math.max(a, b);
+            final int[] outer = fatherOuter ? father : mother, inner = fatherOuter ? mother : father;
+            final int outerOffset = fatherOuter ? fatherOffset : motherOffset;
+            final int innerOffset = fatherOuter ? motherOffset : fatherOffset;
+            System.arraycopy(outer, outerOffset, child, childOffset, from);
+            System.arraycopy(inner, innerOffset + from, child, childOffset + from, to - from);
+            System.arraycopy(outer, outerOffset + to, child, childOffset + to, length - to);
+        }
+    };
+
+    /**
+     * Discrete crossover
+     *
+     * Each gene is inherited whole from either the father or the mother.
+     * The father is selected with a likelihood of the bias.
+     * Within a genome, a single random mask selects the parents of up to 32 genes at once.
+     */
+    public static final Crossover DISCRETE = new Crossover()
+    {
+        @Override public int perform(final int father, final int mother, final Random generator, final float bias)
+        {
+            checkGenes(father, mother, generator, bias);
+            return generator.nextFloat() < bias ? father : mother;
+        }
+
+        @Override public void perform(final int[] father, final int fatherOffset, final int[] mother,
+                                      final int motherOffset, final int[] child, final int childOffset,
+                                      final int length, final Random generator, final float bias)
+        {
+            checkGenomes(father, fatherOffset, mother, motherOffset, child, childOffset, length, generator, bias);
+            final int q = likelihood(bias);
+            int mask = 0;
+            for (int i = 0; i < length; i++)
+            {
+                if ((i & Integer.SIZE - 1) == 0) mask = bernoulliMask(generator, q);
+                child[childOffset + i] = (mask >>> i & 1) != 0 ? father[fatherOffset + i] : mother[motherOffset + i];
+            }
+        }
+    };
+
+    /**
+     * Arithmetic crossover
+     *
+     * Each gene is the weighted average of the father's and mother's genes,
+     * the father being weighted by the bias and the mother by its complement.
+     * No random numbers are drawn.
+     */
+    public static final Crossover ARITHMETIC = new Crossover()
+    {
+        @Override public int perform(final int father, final int mother, final Random generator, final float bias)
+        {
+            checkGenes(father, mother, generator, bias);
+            return clamp(bias * (double)father + (1 - bias) * (double)mother);
+        }
+
+        @Override public void perform(final int[] father, final int fatherOffset, final int[] mother,
+                                      final int motherOffset, final int[] child, final int childOffset,
+                                      final int length, final Random generator, final float bias)
         {
-            c += ((generator.nextFloat() < bias ? a : b) & 1) << i;
-            a >>= 1;
-            b >>= 1;
+            checkGenomes(father, fatherOffset, mother, motherOffset, child, childOffset, length, generator, bias);
+            final double fw = bias, mw = 1 - fw;
+            for (int i = 0; i < length; i++)
+                child[childOffset + i] = clamp(fw * father[fatherOffset + i] + mw * mother[motherOffset + i]);
         }
-        return c;
     };
 
+    /**
+     * Simulated binary crossover, of distribution index 2
+     *
+     * @see Crossover#simulatedBinary(double)
+     */
+    public static final Crossover SIMULATED_BINARY = simulatedBinary(2);
+
+    /**
+     * Blend crossover, of alpha 0.5
+     *
+     * @see Crossover#blend(double)
+     */
+    public static final Crossover BLEND = blend(0.5);
+
     /**
      * Performs a gene crossover between two parents
      *
      * Crossover type depends upon the implementation of this method
      *
-     * A bias of 0.0 would yield 100% of bits to be inherited from the father.
-     * A bias of 1.0 would yield 100% of bits to be inherited from the mother.
+     * The bias favours the father: uniform crossover inherits each bit from the father with a likelihood
+     * of the bias, whereas other crossovers favour the father in proportion to the bias, as each describes.
+     * A bias of 0.0 would yield 100% of bits to be inherited from the mother.
+     * A bias of 1.0 would yield 100% of bits to be inherited from the father.
      * A bias of 0.5 would yield an even likelihood of inheritance from either parent.
      *
      * @param father Father bits to crossover
      * @param mother Mother bits to crossover
      * @param generator Random sequence generator
-     * @param bias Likelihood of bits being inherited from the father/mother, domain: [0.0, 1.0]
+     * @param bias Likelihood of bits being inherited from the father, domain: [0.0, 1.0]
      * @return Child gene crossed over from parents
      */
     int perform(final int father, final int mother, final Random generator, final float bias);
@@ -89,4 +260,171 @@ public interface Crossover
     {
         return perform(father, mother, generator, 0.5f);
     }
+
+    /**
+     * Performs a crossover between two parental genomes, gene by gene
+     *
+     * Parameters are validated once for the whole genome, rather than once per gene.
+     * By default, each gene is crossed over individually via 'perform'.
+     * Implementations may override this method with a tighter loop over the genome.
+     * The child may reside within the same array as either parent, provided they do not overlap.
+     *
+     * @param father Array containing the father's genes
+     * @param fatherOffset Offset of the father's first gene
+     * @param mother Array containing the mother's genes
+     * @param motherOffset Offset of the mother's first gene
+     * @param child Array to write the child's genes to
+     * @param childOffset Offset of the child's first gene
+     * @param length Number of genes to crossover
+     * @param generator Random sequence generator
+     * @param bias Likelihood of bits being inherited from the father, domain: [0.0, 1.0]
+     * @see Crossover#perform(int, int, Random, float)
+     */
+    default void perform(final int[] father, final int fatherOffset, final int[] mother, final int motherOffset,
+                         final int[] child, final int childOffset, final int length,
+                         final Random generator, final float bias)
+    {
+        checkGenomes(father, fatherOffset, mother, motherOffset, child, childOffset, length, generator, bias);
+        for (int i = 0; i < length; i++)
+            child[childOffset + i] = perform(father[fatherOffset + i], mother[motherOffset + i], generator, bias);
+    }
+
+    /**
+     * Performs a crossover between two parental genomes, gene by gene
+     *
+     * Ensures equal likelihood of bits being inherited from father vs. mother.
+     *
+     * @param father Father's genes
+     * @param mother Mother's genes
+     * @param child Array to write the child's genes to
+     * @param generator Random sequence generator
+     * @see Crossover#perform(int[], int, int[], int, int[], int, int, Random, float)
+     */
+    default void perform(final int[] father, final int[] mother, final int[] child, final Random generator)
+    {
+        perform(father, 0, mother, 0, child, 0, requireNonNull(child).length, generator, 0.5f);
+    }
+
+    /**
+     * Simulated binary crossover
+     *
+     * Simulates the spread of children which single-point crossover yields upon binary strings.
+     * A spread factor is drawn for each gene, from a distribution whose shape is controlled by
+     * the distribution index. Higher indexes yield children nearer their parents.
+     * Each crossover yields two candidate children, symmetric about the parents' mean.
+     * The candidate nearer the father is selected with a likelihood of the bias.
+     *
+     * @param distributionIndex Distribution index of the spread factor, domain: [0.0, inf)
+     * @return Simulated binary crossover
+     */
+    static Crossover simulatedBinary(final double distributionIndex)
+    {
+        validateDomain(distributionIndex, 0.0, Double.MAX_VALUE);
+        final double exponent = 1 / (distributionIndex + 1);
+        return new Crossover()
+        {
+            @Override public int perform(final int father, final int mother, final Random generator,
+                                         final float bias)
+            {
+                checkGenes(father, mother, generator, bias);
+                return crossover(father, mother, generator, bias);
+            }
+
+            @Override public void perform(final int[] father, final int fatherOffset, final int[] mother,
+                                          final int motherOffset, final int[] child, final int childOffset,
+                                          final int length, final Random generator, final float bias)
+            {
+                checkGenomes(father, fatherOffset, mother, motherOffset, child, childOffset, length, generator, bias);
+                for (int i = 0; i < length; i++)
+                    child[childOffset + i] = crossover(father[fatherOffset + i], mother[motherOffset + i], generator, bias);
+            }
+
+            /* Draws a spread factor, selecting the candidate child nearer the father or mother */
+            private int crossover(final int father, final int mother, final Random generator, final float bias)
+            {
+                final double u = generator.nextDouble();
+                final double beta = u <= 0.5 ? Math.pow(2 * u, exponent) : Math.pow(1 / (2 * (1 - u)), exponent);
+                final double mean = 0.5 * ((double)father + mother), spread = 0.5 * beta * ((double)father - mother);
+                return clamp(generator.nextFloat() < bias ? mean + spread : mean - spread);
+            }
+        };
+    }
+
+    /**
+     * Blend crossover
+     *
+     * Each gene is drawn uniformly from the range spanned by the parents' genes,
+     * extended on either side by alpha times the distance between them.
+     * An alpha of 0.0 confines children between their parents; larger alphas explore beyond them.
+     * The bias does not apply, as the range is symmetric about the parents.
+     *
+     * @param alpha Extension of the range on either side, relative to the distance between parents
+     * @return Blend crossover
+     */
+    static Crossover blend(final double alpha)
+    {
+        validateDomain(alpha, 0.0, Double.MAX_VALUE);
+        return new Crossover()
+        {
+            @Override public int perform(final int father, final int mother, final Random generator,
+                                         final float bias)
+            {
+                checkGenes(father, mother, generator, bias);
+                return crossover(father, mother, generator);
+            }
+
+            @Override public void perform(final int[] father, final int fatherOffset, final int[] mother,
+                                          final int motherOffset, final int[] child, final int childOffset,
+                                          final int length, final Random generator, final float bias)
+            {
+                checkGenomes(father, fatherOffset, mother, motherOffset, child, childOffset, length, generator, bias);
+                for (int i = 0; i < length; i++)
+                    child[childOffset + i] = crossover(father[fatherOffset + i], mother[motherOffset + i], generator);
+            }
+
+            /* Draws a gene uniformly from the extended range of the parents */
+            private int crossover(final int father, final int mother, final Random generator)
+            {
+                final double lo = Math.min(father, mother), distance = Math.abs((double)father - mother);
+                return clamp(lo - alpha * distance + generator.nextDouble() * distance * (1 + 2 * alpha));
+            }
+        };
+    }
+
+    /* Rounds a numeric gene to the nearest integer within the domain of genes */
+    private static int clamp(final double gene)
+    {
+        return (int)Math.max(0, Math.min(Integer.MAX_VALUE, Math.round(gene)));
+    }
+
+    /* Ensure parental genes are non-negative, and the crossover parameters are valid */
+    private static void checkGenes(final int father, final int mother, final Random generator, final float bias)
+    {
+        checkSigns(father | mother);
+        validateDomain(bias, 0.0f, 1.0f);
+        requireNonNull(generator);
+    }
+
+    /* Ensure each genome lies within its array, parental genes are non-negative, and parameters are valid */
+    private static void checkGenomes(final int[] father, final int fatherOffset, final int[] mother,
+                                     final int motherOffset, final int[] child, final int childOffset,
+                                     final int length, final Random generator, final float bias)
+    {
+        Objects.checkFromIndexSize(fatherOffset, length, requireNonNull(father).length);
+        Objects.checkFromIndexSize(motherOffset, length, requireNonNull(mother).length);
+        Objects.checkFromIndexSize(childOffset, length, requireNonNull(child).length);
+        validateDomain(bias, 0.0f, 1.0f);
+        requireNonNull(generator);
+        // Validated before the child is written, such that an invalid parent never leaves a partial child
+        int signs = 0;
+        for (int i = 0; i < length; i++)
+            signs |= father[fatherOffset + i] | mother[motherOffset + i];
+        checkSigns(signs);
+    }
+
+    /* Ensure no parental gene is negative, given the bitwise OR of the parental genes */
+    private static void checkSigns(final int signs)
+    {
+        if (signs < 0) throw new IllegalArgumentException("Parental genes must be non-negative.");
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.gene;
+
+import java.util.Random;
+
+
+/**
+ * Bitwise kernels shared by the crossover & mutation operators
+ *
+ * By default, operators apply each gene's random mask as soon as it is drawn, in a single pass.
+ * Should the Vector API kernel be available, uniform operators instead draw every mask into a
+ * scratch array, then hand the masks to the kernel which applies them across the whole genome.
+ * The Vector API kernel resides within the optional 'src-vector' source root, and is only
+ * used should its class have been compiled and placed upon the class path, and the
+ * 'jdk.incubator.vector' module be present. Setting the system property
+ * 'genetic.gene.vector' to false disables it.
+ */
+abstract class GeneKernels
+{
+    /** System property which, when false, disables the Vector API kernel */
+    static final String VECTOR_PROPERTY = "genetic.gene.vector";
+
+    /** Vector API kernel, or null should it be unavailable or disabled */
+    static final GeneKernels VECTOR = select();
+
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[0]);
+
+    /**
+     * Blends two parental genomes into a child, selecting bits from the father wherever the mask is set
+     *
+     * @param father Array containing the father's genes
+     * @param fatherOffset Offset of the father's first gene
+     * @param mother Array containing the mother's genes
+     * @param motherOffset Offset of the mother's first gene
+     * @param masks Mask of each gene, beginning at index zero
+     * @param child Array to write the child's genes to
+     * @param childOffset Offset of the child's first gene
+     * @param length Number of genes to blend
+     */
+    abstract void blend(final int[] father, final int fatherOffset, final int[] mother, final int motherOffset,
+                       final int[] masks, final int[] child, final int childOffset, final int length);
+
+    /**
+     * Flips the bits of each gene wherever its mask is set
+     *
+     * @param genes Array containing the genome
+     * @param offset Offset of the genome's first gene
+     * @param masks Mask of each gene, beginning at index zero
+     * @param length Number of genes to flip
+     */
+    abstract void flip(final int[] genes, final int offset, final int[] masks, final int length);
+
+    /**
+     * @return Name of the kernel, for diagnostics
+     */
+    abstract String name();
+
+    /**
+     * Retrieves a scratch array for the masks of a genome
+     *
+     * The array is owned by the calling thread, and is re-used by subsequent calls.
+     *
+     * @param length Minimum length of the array
+     * @return Scratch array of at least the specified length
+     */
+    static int[] scratch(final int length)
+    {
+        int[] masks = SCRATCH.get();
+        if (masks.length < length)
+        {
+            masks = new int[length];
+            SCRATCH.set(masks);
+        }
+        return masks;
+    }
+
+    /**
+     * Draws a mask of bits, each of which is set independently with a likelihood of q / 2^24
+     *
+     * For a likelihood derived from a bias, each bit is set with the same likelihood
+     * as 'generator.nextFloat() < bias'. The likelihood is built up
+     * one binary digit at a time, from least to most significant: OR-ing a random word
+     * adds a one-digit, whereas AND-ing a random word adds a zero-digit. Trailing zero-digits
+     * are skipped, such that a bias of 0.5 requires one draw, and at most 24 draws are required.
+     *
+     * @param generator Random sequence generator
+     * @param q Likelihood of each bit being set, as a multiple of 2^-24
+     * @return Mask of randomly set bits
+     */
+    static int bernoulliMask(final Random generator, final int q)
+    {
+        if (q >= 1 << 24) return -1;
+        int mask = 0;
+        for (int digit = Integer.numberOfTrailingZeros(q); digit < 24; digit++)
+            mask = (q >>> digit & 1) != 0 ? mask | generator.nextInt() : mask & generator.nextInt();
+        return mask;
+    }
+
+    /**
+     * @param bias Likelihood of a bit being selected, domain: [0.0, 1.0]
+     * @return Likelihood of 'generator.nextFloat() < bias', as a multiple of 2^-24
+     */
+    static int likelihood(final float bias)
+    {
+        return (int)Math.ceil(bias * (double)(1 << 24));
+    }
+
+    /* Selects the Vector API kernel if available & enabled, otherwise null */
+    private static GeneKernels select()
+    {
+        if (!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return null;
+        try
+        {
+            // Loaded reflectively, such that operators remain usable without the incubator module
+            return (GeneKernels)Class.forName("genetic.gene.VectorGeneKernels")
+                    .getDeclaredConstructor().newInstance();
+        }
+        catch (final ReflectiveOperationException | LinkageError e)
+        {
+            return null;
+        }
+    }
+}
@@ -18,6 +18,7 @@
 
 package genetic.gene;
 
+import java.util.Objects;
 import java.util.Random;
 
 import static java.util.Objects.requireNonNull;
@@ -37,23 +38,134 @@ public interface Mutation
      *
      * Randomly flips bits of a gene based on a mutation chance.
      * Leading zero bits are not iterated over or flipped.
+     * Whole genomes are flipped with their masks via the Vector API, when available.
+     *
+     * @see Mutation#GEOMETRIC
      */
-    public static final Mutation UNIFORM = (gene, generator, mutationRate) ->
+    public static final Mutation UNIFORM = new Mutation()
     {
-        if (gene < 0)
-            throw new IllegalArgumentException("Gene must be non-negative");
-        if (mutationRate < 0 || mutationRate > 1)
-            throw new IllegalArgumentException("Mutation rate must be within the domain: [0.0, 1.0].");
-        requireNonNull(generator);
-        int a = gene, b = gene;
-        for (int k = 0; b != 0; k++)
+        @Override public int perform(final int gene, final Random generator, final float mutationRate)
+        {
+            if (gene < 0)
+                throw new IllegalArgumentException("Gene must be non-negative");
+            checkRate(mutationRate);
+            requireNonNull(generator);
+            return gene ^ flipMask(gene, generator, mutationRate);
+        }
+
+        @Override public void perform(final int[] genes, final int offset, final int length,
+                                      final Random generator, final float mutationRate)
+        {
+            Objects.checkFromIndexSize(offset, length, requireNonNull(genes).length);
+            checkRate(mutationRate);
+            requireNonNull(generator);
+            for (int i = offset; i < offset + length; i++)
+                if (genes[i] < 0) throw new IllegalArgumentException("Gene must be non-negative");
+            final GeneKernels kernels = GeneKernels.VECTOR;
+            if (kernels == null)
+            {
+                for (int i = offset; i < offset + length; i++)
+                    genes[i] ^= flipMask(genes[i], generator, mutationRate);
+                return;
+            }
+            final int[] masks = GeneKernels.scratch(length);
+            for (int i = 0; i < length; i++)
+                masks[i] = flipMask(genes[offset + i], generator, mutationRate);
+            kernels.flip(genes, offset, masks, length);
+        }
+
+        /* Selects each bit up to the most significant set bit, with a likelihood of the mutation rate */
+        private int flipMask(final int gene, final Random generator, final float mutationRate)
+        {
+            int mask = 0, b = gene;
+            for (int k = 0; b != 0; k++)
+            {
+                if (generator.nextFloat() < mutationRate)
+                    mask |= (1 << k);
+                /* Continue until there are no more set bits */
+                b >>= 1;
+            }
+            return mask;
+        }
+    };
+
+    /**
+     * Geometric mutation
+     *
+     * Flips bits with the same distribution as uniform mutation, each bit up to the most
+     * significant set bit flipping independently with a likelihood of the mutation rate.
+     * Rather than drawing a random number per bit, the gap until the next flipped bit is
+     * drawn from a geometric distribution, spanning every eligible bit of the genome.
+     * Random draws therefore scale with the number of mutations rather than the number of bits,
+     * making this mutation considerably cheaper than uniform mutation at low mutation rates.
+     *
+     * @see Mutation#UNIFORM
+     */
+    public static final Mutation GEOMETRIC = new Mutation()
+    {
+        @Override public int perform(final int gene, final Random generator, final float mutationRate)
+        {
+            if (gene < 0)
+                throw new IllegalArgumentException("Gene must be non-negative");
+            checkRate(mutationRate);
+            requireNonNull(generator);
+            final double p = likelihood(mutationRate);
+            if (p <= 0 || p >= 1) return p <= 0 ? gene : gene ^ eligible(gene);
+            final double logQ = Math.log1p(-p);
+            final int numBits = Integer.SIZE - Integer.numberOfLeadingZeros(gene);
+            int mask = 0;
+            for (long skip = gap(generator, logQ); skip < numBits; skip += 1 + gap(generator, logQ))
+                mask |= 1 << skip;
+            return gene ^ mask;
+        }
+
+        @Override public void perform(final int[] genes, final int offset, final int length,
+                                      final Random generator, final float mutationRate)
+        {
+            Objects.checkFromIndexSize(offset, length, requireNonNull(genes).length);
+            checkRate(mutationRate);
+            requireNonNull(generator);
+            for (int i = offset; i < offset + length; i++)
+                if (genes[i] < 0) throw new IllegalArgumentException("Gene must be non-negative");
+            final double p = likelihood(mutationRate);
+            if (p <= 0) return;
+            if (p >= 1)
+            {
+                for (int i = offset; i < offset + length; i++)
+                    genes[i] ^= eligible(genes[i]);
+                return;
+            }
+            final double logQ = Math.log1p(-p);
+            long skip = gap(generator, logQ); // Eligible bits to skip before the next flip
+            for (int i = offset; i < offset + length; i++)
+            {
+                final int numBits = Integer.SIZE - Integer.numberOfLeadingZeros(genes[i]);
+                int mask = 0;
+                for (; skip < numBits; skip += 1 + gap(generator, logQ))
+                    mask |= 1 << skip;
+                genes[i] ^= mask;
+                skip -= numBits;
+            }
+        }
+
+        /* Likelihood of 'generator.nextFloat() < mutationRate', matching that of uniform mutation */
+        private double likelihood(final float mutationRate)
+        {
+            return GeneKernels.likelihood(mutationRate) / (double)(1 << 24);
+        }
+
+        /* Mask of every bit up to the most significant set bit */
+        private int eligible(final int gene)
+        {
+            return gene == 0 ? 0 : -1 >>> Integer.numberOfLeadingZeros(gene);
+        }
+
+        /* Number of failed trials before the next success, for a trial failure likelihood of e^logQ */
+        private long gap(final Random generator, final double logQ)
         {
-            if (generator.nextFloat() < mutationRate)
-                a ^= (1 << k);
-            /* Continue until there are no more set bits */
-            b >>= 1;
+            // 1 - nextDouble() lies within (0, 1], such that its logarithm is finite
+            return (long)(Math.log(1 - generator.nextDouble()) / logQ);
         }
-        return a;
     };
 
     /**
@@ -82,4 +194,35 @@ public interface Mutation
     {
         return perform(gene, generator, 0.5f);
     }
+
+    /**
+     * Performs a mutation upon every gene of a genome, in-place
+     *
+     * Parameters are validated once for the whole genome, rather than once per gene.
+     * By default, each gene is mutated individually via 'perform'.
+     * Implementations may override this method with a tighter loop over the genome.
+     *
+     * @param genes Array containing the genome
+     * @param offset Offset of the genome's first gene
+     * @param length Number of genes to mutate
+     * @param generator Random sequence generator
+     * @param mutationRate Likelihood of bits being mutated, domain: [0.0, 1.0]
+     * @see Mutation#perform(int, Random, float)
+     */
+    default void perform(final int[] genes, final int offset, final int length,
+                         final Random generator, final float mutationRate)
+    {
+        Objects.checkFromIndexSize(offset, length, requireNonNull(genes).length);
+        checkRate(mutationRate);
+        requireNonNull(generator);
+        for (int i = offset; i < offset + length; i++)
+            genes[i] = perform(genes[i], generator, mutationRate);
+    }
+
+    /* Ensure the mutation rate lies within its domain */
+    private static void checkRate(final float mutationRate)
+    {
+        if (mutationRate < 0 || mutationRate > 1)
+            throw new IllegalArgumentException("Mutation rate must be within the domain: [0.0, 1.0].");
+    }
 }
@@ -21,9 +21,7 @@ package genetic.gradient;
 import genetic.population.Population;
 import genetic.agent.Agent;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Random;
+import java.util.*;
 import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
@@ -72,18 +70,19 @@ public final class BirdshotGradient<T extends Agent<T>> implements Gradient<T>
         final double[] costs = pop.getFitnessCosts();
         final int numAgents = agents.size();
         final double min = min(costs), max = max(costs);
+        final double[] odds = new double[numAgents];
         for (int i = 0; i < numAgents; i++)
             /* 1) Normalize numbers so they fall in ranges [0.0, 1.0]. 2) Subtract 0.5 so the mean of the
              * numbers is adjusted. 3) Scale the numbers by a scalar to create a more dramatic swing in the
              * sigmoid function. 4) Apply the sigmoid function to favor outsiders more than insiders. */
-            costs[i] = sigmoid((normalize(costs[i], min, max) - 0.5) * scalar);
+            odds[i] = sigmoid((normalize(costs[i], min, max) - 0.5) * scalar);
 
         /* Elite & Non Elite: Top & bottom performing half of the population.
         Unlucky & Lucky: Agents who are randomly selected to die & live despite performance. */
-        final LinkedList<T> elite = new LinkedList<>(), nonElite = new LinkedList<>(),
+        final LinkedList<Integer> elite = new LinkedList<>(), nonElite = new LinkedList<>(),
                 unlucky = new LinkedList<>(), lucky = new LinkedList<>();
-        unluckyDeaths(agents, costs, elite, unlucky);
-        luckyRebirths(agents, costs, nonElite, lucky);
+        unluckyDeaths(odds, elite, unlucky);
+        luckyRebirths(odds, nonElite, lucky);
 
         final int ulCount = unlucky.size(), luCount = lucky.size();
         // If elite & non-elite would be unbalanced, change fates of average performing agents until at equilibrium
@@ -93,20 +92,31 @@ public final class BirdshotGradient<T extends Agent<T>> implements Gradient<T>
         else if (luCount > ulCount)
             for (int i = luCount - ulCount; i > 0; i--)
                 nonElite.add(elite.removeFirst());
-        agents.clear(); Stream.of(elite, lucky, nonElite, unlucky).forEach(agents::addAll);
+
+        // Agents & costs must be moved together, such that costs remain valid for surviving agents
+        final List<T> agents_co = List.copyOf(agents);
+        final double[] costs_co = Arrays.copyOf(costs, numAgents);
+        final Iterator<Integer> order = Stream.of(elite, lucky, nonElite, unlucky)
+                .flatMap(List::stream).iterator();
+        for (int i = 0; i < numAgents; i++)
+        {
+            final int j = order.next();
+            agents.set(i, agents_co.get(j));
+            costs[i] = costs_co[j];
+        }
     }
 
     // Categorized the front-half agents as 'alive' or, when very unlucky, 'dead'
-    private void unluckyDeaths(final List<T> l, final double[] c, final List<T> a, final List<T> b)
+    private void unluckyDeaths(final double[] c, final List<Integer> a, final List<Integer> b)
     {
         for (int i = c.length / 2 - 1; i >= 0; i--)
-            if (c[i] < generator.nextDouble()) a.add(l.get(i)); else b.add(l.get(i));
+            if (c[i] < generator.nextDouble()) a.add(i); else b.add(i);
     }
 
     // Categorize the back-half agents as 'dead' or, when very lucky, 'alive'
-    private void luckyRebirths(final List<T> l, final double[] c, final List<T> a, final List<T> b)
+    private void luckyRebirths(final double[] c, final List<Integer> a, final List<Integer> b)
     {
         for (int i = c.length / 2; i < c.length; i++)
-            if (c[i] > generator.nextDouble()) a.add(l.get(i)); else b.add(l.get(i));
+            if (c[i] > generator.nextDouble()) a.add(i); else b.add(i);
     }
 }
@@ -36,4 +36,35 @@ public interface Gradient<T extends Agent<T>>
      * @param pop Population to apply the gradient to
      */
     void apply(final Population<T> pop);
+
+    /**
+     * Determines whether the population must be fully sorted before the gradient is applied
+     *
+     * Should a total order not be required, the population is only partitioned around its median,
+     * with the better performing half preceding the worse performing half.
+     * By default, a total order is required.
+     *
+     * @return True if the gradient requires the population to be sorted
+     * @see Population#partitionPopulation()
+     */
+    default boolean requiresTotalOrder() { return true; }
+
+    /**
+     * Gradient which does not alter the fate of any agents
+     *
+     * The better performing half of the population always survives.
+     * Only requires the population to be partitioned, rather than sorted.
+     *
+     * @param <T> Type of agent
+     * @return Gradient which does nothing
+     */
+    static <T extends Agent<T>> Gradient<T> none()
+    {
+        return new Gradient<>()
+        {
+            @Override public void apply(final Population<T> pop) { }
+
+            @Override public boolean requiresTotalOrder() { return false; }
+        };
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.island;
+
+import genetic.Simulation;
+
+import java.io.*;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Objects.requireNonNull;
+
+
+/**
+ * Coordinates migration between islands which reside in separate processes
+ *
+ * Islands connect to the coordinator over TCP or Unix domain sockets.
+ * Each epoch, the coordinator gathers cost statistics and emigrants from every island,
+ * combines the statistics into a single stream for a simulation's cost statistics callback,
+ * and routes emigrants to their destination island according to a migration topology.
+ *
+ * @see MigrationLink
+ */
+public final class MigrationCoordinator implements Closeable
+{
+    private final ServerSocketChannel server;
+
+    /**
+     * Constructs a migration coordinator, listening on the specified address
+     *
+     * @param address Address to listen on, either TCP or Unix domain
+     * @throws IOException If the address could not be bound
+     */
+    public MigrationCoordinator(final SocketAddress address) throws IOException
+    {
+        server = requireNonNull(address) instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX) : ServerSocketChannel.open();
+        try { server.bind(address); }
+        catch (final IOException e)
+        {
+            server.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Address the coordinator is listening on
+     * @throws IOException If the coordinator has been closed
+     */
+    public SocketAddress getAddress() throws IOException
+    {
+        return server.getLocalAddress();
+    }
+
+    /**
+     * Coordinates a simulation across the specified number of islands
+     *
+     * Blocks until every island has connected, and then until every island has finished.
+     * Islands are numbered by the order in which they connect, for the purposes of the topology.
+     *
+     * @param numIslands Number of islands to wait for
+     * @param topology Topology dictating the destination of emigrants
+     * @param generator Random sequence generator, used for the migration topology
+     * @param sim Simulation whose cost statistics callback receives the combined statistics
+     * @throws IOException If the connection to any island fails
+     */
+    public void coordinate(final int numIslands, final Topology topology, final Random generator,
+                           final Simulation<?> sim) throws IOException
+    {
+        requireNonNull(topology);
+        requireNonNull(generator);
+        requireNonNull(sim);
+        if (numIslands <= 0) throw new IllegalArgumentException("At least one island must be specified");
+
+        final List<SocketChannel> channels = new ArrayList<>(numIslands);
+        try
+        {
+            final DataInputStream[] in = new DataInputStream[numIslands];
+            final DataOutputStream[] out = new DataOutputStream[numIslands];
+            for (int i = 0; i < numIslands; i++)
+            {
+                final SocketChannel channel = server.accept();
+                channels.add(channel);
+                in[i] = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                out[i] = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            }
+
+            for (boolean last = false; !last; )
+            {
+                /* Gather statistics and emigrants from every island */
+                int firstGen = 0, lastGen = 0;
+                DoubleSummaryStatistics[] combined = null;
+                final List<List<int[]>> genes = new ArrayList<>(numIslands);
+                final List<List<Double>> costs = new ArrayList<>(numIslands);
+                for (int i = 0; i < numIslands; i++)
+                {
+                    final int first = in[i].readInt(), end = in[i].readInt();
+                    final boolean finished = in[i].readBoolean();
+                    if (i == 0)
+                    {
+                        firstGen = first; lastGen = end; last = finished;
+                        combined = new DoubleSummaryStatistics[end - first + 1];
+                        for (int j = 0; j < combined.length; j++) combined[j] = new DoubleSummaryStatistics();
+                    }
+                    else if (first != firstGen || end != lastGen || finished != last)
+                        throw new IllegalStateException("Islands must progress through generations in lockstep");
+                    for (final DoubleSummaryStatistics dss : combined)
+                        dss.combine(MigrationProtocol.readStats(in[i]));
+                    final int emigrants = in[i].readInt();
+                    final List<int[]> g = new ArrayList<>(emigrants);
+                    final List<Double> c = new ArrayList<>(emigrants);
+                    for (int j = 0; j < emigrants; j++)
+                    {
+                        g.add(MigrationProtocol.readGenes(in[i]));
+                        c.add(in[i].readDouble());
+                    }
+                    genes.add(g); costs.add(c);
+                }
+
+                /* Broadcast the combined performance of every generation since the last epoch */
+                for (int j = 0; j < combined.length; j++)
+                    sim.genCostStatsCallback(combined[j], firstGen + j);
+
+                /* Route emigrants to their destination island */
+                final int[] destinations = topology.destinations(numIslands, generator);
+                final List<List<Integer>> arrivals = new ArrayList<>(numIslands);
+                for (int i = 0; i < numIslands; i++) arrivals.add(new ArrayList<>());
+                for (int i = 0; i < numIslands; i++)
+                    if (destinations[i] != i) arrivals.get(destinations[i]).add(i);
+                for (int i = 0; i < numIslands; i++)
+                {
+                    int immigrants = 0;
+                    for (final int src : arrivals.get(i)) immigrants += genes.get(src).size();
+                    out[i].writeInt(immigrants);
+                    for (final int src : arrivals.get(i))
+                        for (int j = 0; j < genes.get(src).size(); j++)
+                            MigrationProtocol.writeMigrant(out[i], genes.get(src).get(j), costs.get(src).get(j));
+                    out[i].flush();
+                }
+            }
+        }
+        finally
+        {
+            for (final SocketChannel channel : channels) channel.close();
+        }
+    }
+
+    @Override public void close() throws IOException
+    {
+        server.close();
+    }
+}
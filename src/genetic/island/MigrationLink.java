@@ -0,0 +1,111 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.island;
+
+import genetic.agent.Agent;
+import genetic.population.Population;
+
+import java.io.*;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+
+/**
+ * Connection between an island and its migration coordinator
+ *
+ * Each epoch, the island reports its cost statistics and emigrants to the coordinator,
+ * then waits for the coordinator to reply with immigrants from other islands.
+ * The exchange therefore doubles as a barrier across every island of the simulation.
+ *
+ * @see MigrationCoordinator
+ */
+public final class MigrationLink implements Closeable
+{
+    private final SocketChannel channel;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    /**
+     * Connects to a migration coordinator
+     *
+     * @param address Address of the coordinator, either TCP or Unix domain
+     * @throws IOException If the coordinator could not be reached
+     */
+    public MigrationLink(final SocketAddress address) throws IOException
+    {
+        channel = SocketChannel.open(requireNonNull(address));
+        in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    /**
+     * Exchanges statistics and migrants with the coordinator
+     *
+     * The population must be sorted, as emigrants are drawn from the top of the population.
+     * Immigrants replace the worst performing agents of the population, up to half of the population.
+     * The population must be re-sorted afterwards, should any immigrants have arrived.
+     *
+     * @param pop Population of the island
+     * @param stats Cost statistics of each generation since the last exchange
+     * @param firstGen Generation number of the first statistics entry
+     * @param migrants Number of agents to emigrate
+     * @param last True if this is the final exchange of the simulation
+     * @return Number of immigrants which arrived
+     * @throws IOException If the connection to the coordinator fails
+     */
+    public int exchange(final Population<?> pop, final DoubleSummaryStatistics[] stats, final int firstGen,
+                        final int migrants, final boolean last) throws IOException
+    {
+        out.writeInt(firstGen);
+        out.writeInt(firstGen + stats.length - 1);
+        out.writeBoolean(last);
+        for (final DoubleSummaryStatistics dss : stats)
+            MigrationProtocol.writeStats(out, requireNonNull(dss));
+        final List<? extends Agent<?>> agents = pop.getPopulation();
+        final double[] costs = pop.getFitnessCosts();
+        final int emigrants = min(migrants, pop.size() / 2);
+        out.writeInt(emigrants);
+        for (int i = 0; i < emigrants; i++)
+            MigrationProtocol.writeMigrant(out, agents.get(i).getWeights(), costs[i]);
+        out.flush();
+
+        final int immigrants = in.readInt();
+        int accepted = 0;
+        for (int i = 0; i < immigrants; i++)
+        {
+            final int[] genes = MigrationProtocol.readGenes(in);
+            final double cost = in.readDouble();
+            // Immigrants may only replace the bottom half, as to never overwrite the island's own emigrants
+            if (accepted < agents.size() / 2)
+                pop.immigrate(agents.size() - 1 - accepted++, genes, cost);
+        }
+        return accepted;
+    }
+
+    @Override public void close() throws IOException
+    {
+        channel.close();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.island;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.DoubleSummaryStatistics;
+
+
+/**
+ * Wire format shared by migration coordinators and their islands
+ *
+ * Island to coordinator, once per epoch:
+ *      * int first generation, int last generation, boolean final epoch
+ *      * For each generation: long count, double sum, double min, double max
+ *      * int number of emigrants, followed by each migrant
+ * Coordinator to island, once per epoch:
+ *      * int number of immigrants, followed by each migrant
+ * A migrant is encoded as: int gene count, each gene, double cost.
+ */
+final class MigrationProtocol
+{
+    private MigrationProtocol() { }
+
+    static void writeStats(final DataOutputStream out, final DoubleSummaryStatistics dss) throws IOException
+    {
+        out.writeLong(dss.getCount());
+        out.writeDouble(dss.getSum());
+        out.writeDouble(dss.getMin());
+        out.writeDouble(dss.getMax());
+    }
+
+    static DoubleSummaryStatistics readStats(final DataInputStream in) throws IOException
+    {
+        final long count = in.readLong();
+        final double sum = in.readDouble(), min = in.readDouble(), max = in.readDouble();
+        return new DoubleSummaryStatistics(count, min, max, sum);
+    }
+
+    static void writeMigrant(final DataOutputStream out, final int[] genes, final double cost) throws IOException
+    {
+        out.writeInt(genes.length);
+        for (final int gene : genes) out.writeInt(gene);
+        out.writeDouble(cost);
+    }
+
+    /* Reads the genes of a migrant, the cost of which is read separately */
+    static int[] readGenes(final DataInputStream in) throws IOException
+    {
+        final int length = in.readInt();
+        if (length < 0) throw new IOException("Malformed migrant: negative gene count");
+        final int[] genes = new int[length];
+        for (int i = 0; i < length; i++) genes[i] = in.readInt();
+        return genes;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.island;
+
+import java.util.Random;
+
+import static java.util.Objects.requireNonNull;
+
+
+/**
+ * Defines an assortment of migration topologies
+ *
+ * A topology determines which island each island sends its emigrants to.
+ */
+public interface Topology
+{
+    /**
+     * Ring topology
+     *
+     * Each island sends its emigrants to the next island, with the last island wrapping to the first.
+     */
+    public static final Topology RING = (numIslands, generator) ->
+    {
+        final int[] destinations = new int[numIslands];
+        for (int i = 0; i < numIslands; i++)
+            destinations[i] = (i + 1) % numIslands;
+        return destinations;
+    };
+
+    /**
+     * Random topology
+     *
+     * Each island sends its emigrants to a randomly selected island other than itself.
+     * Some islands may receive emigrants from several islands, while others receive none.
+     */
+    public static final Topology RANDOM = (numIslands, generator) ->
+    {
+        requireNonNull(generator);
+        final int[] destinations = new int[numIslands];
+        for (int i = 0; i < numIslands; i++)
+            /* Select from every island but the source, shifting past the source's index */
+            destinations[i] = numIslands <= 1 ? i : (i + 1 + generator.nextInt(numIslands - 1)) % numIslands;
+        return destinations;
+    };
+
+    /**
+     * Determines the destination of each island's emigrants
+     *
+     * Topology type depends on the implementation of this method
+     *
+     * @param numIslands Number of islands
+     * @param generator Random sequence generator
+     * @return Destination island indexes, indexed by source island
+     */
+    int[] destinations(final int numIslands, final Random generator);
+}
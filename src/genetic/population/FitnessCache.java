@@ -0,0 +1,205 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.population;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+import static java.util.Objects.requireNonNull;
+import static util.Utilities.validateDomain;
+
+
+/**
+ * Bounded cache of fitness costs, keyed by genome
+ *
+ * Late into a simulation, crossover between near-identical parents births many children
+ * whose genes exactly match that of an earlier agent. Caching their fitness costs avoids
+ * evaluating the same genome twice. Genomes are keyed by a 64-bit hash, with a full
+ * comparison of genes upon a collision.
+ *
+ * The cache is divided into segments by the hash of each genome, each segment holding
+ * an even share of the capacity behind its own lock. Threads looking up different genomes
+ * therefore rarely contend. Once a segment is full, its least recently used genome is evicted,
+ * such that eviction approximates least-recently-used order across the whole cache.
+ *
+ * Caching is only valid for deterministic fitness functions.
+ * The cache is thread-safe, though fitness evaluations are performed outside its locks.
+ *
+ * @see Population#setFitnessCache(FitnessCache)
+ */
+public final class FitnessCache
+{
+    /* Segments hash off the upper bits of the genome hash, bounding the number of segments */
+    private static final int SEGMENT_SHIFT = 40, MAX_SEGMENTS = 1 << 64 - SEGMENT_SHIFT;
+
+    private final int capacity;
+    private final Segment[] segments;
+
+    /**
+     * Constructs a fitness cache, with a segment per available processor
+     *
+     * @param capacity Maximum number of genomes the cache can hold
+     */
+    public FitnessCache(final int capacity)
+    {
+        this(capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a fitness cache
+     *
+     * The number of segments is rounded up to a power of two, though never exceeds the capacity.
+     * More segments reduce contention between threads, at the cost of a coarser eviction order.
+     *
+     * @param capacity Maximum number of genomes the cache can hold
+     * @param numSegments Number of independently locked segments, domain: [1, 2^24]
+     */
+    public FitnessCache(final int capacity, final int numSegments)
+    {
+        this.capacity = validateDomain(capacity, 1, Integer.MAX_VALUE);
+        validateDomain(numSegments, 1, MAX_SEGMENTS);
+        int n = Integer.highestOneBit(Math.min(numSegments, capacity));
+        if (n < numSegments && n << 1 <= capacity) n <<= 1; // Round up, provided each segment holds a genome
+        segments = new Segment[n];
+        for (int i = 0; i < n; i++) // Spread the remainder of the capacity across the first segments
+            segments[i] = new Segment(capacity / n + (i < capacity % n ? 1 : 0));
+    }
+
+    /**
+     * Retrieves the fitness cost of a genome, evaluating it should it not be cached
+     *
+     * The genes are copied before being cached, such that the caller may modify them afterwards.
+     *
+     * @param genes Genes of the agent
+     * @param fitness Fitness function of the agent, called upon a miss
+     * @return Fitness cost of the genome
+     */
+    public double computeIfAbsent(final int[] genes, final DoubleSupplier fitness)
+    {
+        requireNonNull(fitness);
+        final Genome key = new Genome(requireNonNull(genes));
+        final Segment segment = segments[(int)(key.hash() >>> SEGMENT_SHIFT) & segments.length - 1];
+        synchronized (segment)
+        {
+            final Double cost = segment.costs.get(key);
+            if (cost != null)
+            {
+                segment.hits++;
+                return cost;
+            }
+            segment.misses++;
+        }
+        // Evaluate outside the lock, such that other threads are not blocked by the fitness function
+        final double cost = fitness.getAsDouble();
+        synchronized (segment) { segment.costs.put(key.copy(), cost); }
+        return cost;
+    }
+
+    /**
+     * Removes every genome from the cache
+     *
+     * Should be called whenever the fitness function changes. Counters are not reset.
+     */
+    public void clear()
+    {
+        for (final Segment segment : segments)
+            synchronized (segment) { segment.costs.clear(); }
+    }
+
+    /**
+     * @return Number of lookups which found a cached fitness cost
+     */
+    public long getHits()
+    {
+        long hits = 0;
+        for (final Segment segment : segments)
+            synchronized (segment) { hits += segment.hits; }
+        return hits;
+    }
+
+    /**
+     * @return Number of lookups which required a fitness evaluation
+     */
+    public long getMisses()
+    {
+        long misses = 0;
+        for (final Segment segment : segments)
+            synchronized (segment) { misses += segment.misses; }
+        return misses;
+    }
+
+    /**
+     * @return Number of genomes evicted to make room for others
+     */
+    public long getEvictions()
+    {
+        long evictions = 0;
+        for (final Segment segment : segments)
+            synchronized (segment) { evictions += segment.evictions; }
+        return evictions;
+    }
+
+    /**
+     * @return Number of genomes currently cached
+     */
+    public int size()
+    {
+        int size = 0;
+        for (final Segment segment : segments)
+            synchronized (segment) { size += segment.costs.size(); }
+        return size;
+    }
+
+    /**
+     * @return Maximum number of genomes the cache can hold
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * @return Number of independently locked segments
+     */
+    public int getSegmentCount()
+    {
+        return segments.length;
+    }
+
+    /* Share of the cache behind its own lock, all fields being guarded by the segment itself */
+    private static final class Segment
+    {
+        private final Map<Genome, Double> costs;
+        private long hits, misses, evictions;
+
+        private Segment(final int capacity)
+        {
+            costs = new LinkedHashMap<>(16, 0.75f, true) // Access order, such that the eldest is least recently used
+            {
+                @Override protected boolean removeEldestEntry(final Map.Entry<Genome, Double> eldest)
+                {
+                    if (size() <= capacity) return false;
+                    evictions++;
+                    return true;
+                }
+            };
+        }
+    }
+}
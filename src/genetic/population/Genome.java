@@ -0,0 +1,89 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.population;
+
+import java.util.Arrays;
+
+
+/**
+ * Genes of an agent, usable as a hash key
+ *
+ * Genomes are compared by a 64-bit hash before comparing each gene,
+ * such that unequal genomes rarely require a full comparison.
+ * The genes are not copied, and must not be modified while the genome is in use as a key.
+ */
+final class Genome
+{
+    private final int[] genes;
+    private final long hash;
+
+    Genome(final int[] genes)
+    {
+        this(genes, hash(genes));
+    }
+
+    private Genome(final int[] genes, final long hash)
+    {
+        this.genes = genes;
+        this.hash = hash;
+    }
+
+    /**
+     * @return Genome of a copy of the genes, such that the original genes may be modified afterwards
+     */
+    Genome copy()
+    {
+        return new Genome(genes.clone(), hash);
+    }
+
+    /**
+     * @return 64-bit hash of the genes
+     */
+    long hash()
+    {
+        return hash;
+    }
+
+    @Override public int hashCode()
+    {
+        return (int)(hash ^ hash >>> 32);
+    }
+
+    @Override public boolean equals(final Object o)
+    {
+        if (this == o) return true;
+        if (!(o instanceof Genome)) return false;
+        final Genome other = (Genome)o;
+        return hash == other.hash && Arrays.equals(genes, other.genes);
+    }
+
+    /* Mixes each gene into the hash, finalizing with the MurmurHash3 avalanche */
+    private static long hash(final int[] genes)
+    {
+        long h = genes.length;
+        for (final int gene : genes)
+            h = (h ^ gene) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.population;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import static util.Utilities.validateDomain;
+
+
+/**
+ * Contiguous storage for the genes of many agents
+ *
+ * Genes of every agent are stored back-to-back within a single block of memory,
+ * such that agents are merely slots (offsets) into the arena. Streaming through
+ * genes is therefore sequential in memory, and the garbage collector traces one block
+ * rather than one array per agent. Slots of destroyed agents are re-used by newer agents.
+ * Should the arena run out of slots, it grows to accommodate more agents.
+ *
+ * Arenas reside either on the heap, or off-heap where genes do not contribute to heap usage.
+ *
+ * @see genetic.agent.ArenaAgent
+ */
+public abstract class GenomeArena
+{
+    private final int genomeLength;
+    private int[] free; // Stack of released slots, guarded by 'this'
+    private int numFree, numSlots; // Released slots & slots ever allocated, guarded by 'this'
+
+    private GenomeArena(final int capacity, final int genomeLength)
+    {
+        validateDomain(capacity, 0, Integer.MAX_VALUE);
+        validateDomain(genomeLength, 1, Integer.MAX_VALUE);
+        this.genomeLength = genomeLength;
+        free = new int[capacity];
+    }
+
+    /**
+     * Constructs a genome arena which resides on the heap, within a single array
+     *
+     * @param capacity Number of agents the arena can hold before growing
+     * @param genomeLength Number of genes of each agent
+     * @return Heap genome arena
+     */
+    public static GenomeArena onHeap(final int capacity, final int genomeLength)
+    {
+        return new Heap(capacity, genomeLength);
+    }
+
+    /**
+     * Constructs a genome arena which resides off-heap, within a single direct buffer
+     *
+     * Heap usage remains flat regardless of the number of agents.
+     * Genes cannot be accessed as an array, only through the arena's accessors.
+     *
+     * @param capacity Number of agents the arena can hold before growing
+     * @param genomeLength Number of genes of each agent
+     * @return Off-heap genome arena
+     */
+    public static GenomeArena offHeap(final int capacity, final int genomeLength)
+    {
+        return new Direct(capacity, genomeLength);
+    }
+
+    /**
+     * Allocates a slot for an agent's genes
+     *
+     * Slots released by destroyed agents are re-used before the arena grows.
+     * Genes of a re-used slot are not cleared.
+     *
+     * @return Slot of the agent
+     */
+    public synchronized int allocate()
+    {
+        if (numFree > 0) return free[--numFree];
+        final long required = (long)(numSlots + 1) * genomeLength;
+        if (required > capacity())
+        {
+            final long grown = Math.max(numSlots + 1L, numSlots * 3L / 2) * genomeLength;
+            grow(grown > maxCapacity() && required <= maxCapacity() ? maxCapacity() : grown);
+        }
+        return numSlots++;
+    }
+
+    /**
+     * Releases a slot, allowing it to be re-used by another agent
+     *
+     * @param slot Slot of a destroyed agent
+     */
+    public synchronized void release(final int slot)
+    {
+        validateDomain(slot, 0, numSlots - 1);
+        if (numFree == free.length) free = Arrays.copyOf(free, Math.max(1, free.length * 2));
+        free[numFree++] = slot;
+    }
+
+    /**
+     * @param index Index of the gene within the arena, offset of a slot plus the gene's index
+     * @return Gene at the specified index
+     * @see GenomeArena#offset(int)
+     */
+    public abstract int get(final int index);
+
+    /**
+     * @param index Index of the gene within the arena, offset of a slot plus the gene's index
+     * @param gene Gene to assign at the specified index
+     * @see GenomeArena#offset(int)
+     */
+    public abstract void set(final int index, final int gene);
+
+    /**
+     * Copies genes out of the arena
+     *
+     * @param index Index of the first gene within the arena
+     * @param dest Array to copy genes into, the entire array is filled
+     */
+    public abstract void read(final int index, final int[] dest);
+
+    /**
+     * Copies genes into the arena
+     *
+     * @param index Index of the first gene within the arena
+     * @param src Array to copy genes from, the entire array is copied
+     */
+    public abstract void write(final int index, final int[] src);
+
+    /**
+     * Retrieves the array containing the genes of every agent in the arena
+     *
+     * The array may be replaced as the arena grows, and therefore should not be retained
+     * across allocations. Genes of a slot begin at its offset, and span the genome length.
+     *
+     * @return Genes of every agent
+     * @throws UnsupportedOperationException If the arena does not reside on the heap
+     * @see GenomeArena#offset(int)
+     */
+    public int[] genes()
+    {
+        throw new UnsupportedOperationException("Arena does not reside within an array");
+    }
+
+    /**
+     * @return True if the arena resides within an array, accessible through 'genes'
+     * @see GenomeArena#genes()
+     */
+    public boolean hasArray() { return false; }
+
+    /**
+     * @param slot Slot of an agent
+     * @return Offset of the slot's first gene, within the arena
+     */
+    public int offset(final int slot) { return slot * genomeLength; }
+
+    /**
+     * @return Number of genes of each agent
+     */
+    public int getGenomeLength() { return genomeLength; }
+
+    /* Number of genes the arena can currently hold */
+    abstract long capacity();
+
+    /* Number of genes the arena can ever hold */
+    abstract long maxCapacity();
+
+    /* Grows the arena to hold the specified number of genes, preserving existing genes */
+    abstract void grow(final long capacity);
+
+    private static final class Heap extends GenomeArena
+    {
+        private volatile int[] genes;
+
+        private Heap(final int capacity, final int genomeLength)
+        {
+            super(capacity, genomeLength);
+            if ((long)capacity * genomeLength > maxCapacity())
+                throw new IllegalArgumentException("Arena capacity exceeds the maximum array length");
+            genes = new int[capacity * genomeLength];
+        }
+
+        @Override public int get(final int index) { return genes[index]; }
+
+        @Override public void set(final int index, final int gene) { genes[index] = gene; }
+
+        @Override public void read(final int index, final int[] dest)
+        {
+            System.arraycopy(genes, index, dest, 0, dest.length);
+        }
+
+        @Override public void write(final int index, final int[] src)
+        {
+            System.arraycopy(src, 0, genes, index, src.length);
+        }
+
+        @Override public int[] genes() { return genes; }
+
+        @Override public boolean hasArray() { return true; }
+
+        @Override long capacity() { return genes.length; }
+
+        @Override long maxCapacity() { return Integer.MAX_VALUE - 8; } // Headroom for array headers
+
+        @Override void grow(final long capacity)
+        {
+            if (capacity > maxCapacity())
+                throw new IllegalStateException("Arena capacity exceeds the maximum array length");
+            genes = Arrays.copyOf(genes, (int)capacity);
+        }
+    }
+
+    private static final class Direct extends GenomeArena
+    {
+        private volatile IntBuffer genes;
+
+        private Direct(final int capacity, final int genomeLength)
+        {
+            super(capacity, genomeLength);
+            if ((long)capacity * genomeLength > maxCapacity())
+                throw new IllegalArgumentException("Arena capacity exceeds the maximum buffer size");
+            genes = allocate(capacity * genomeLength);
+        }
+
+        @Override public int get(final int index) { return genes.get(index); }
+
+        @Override public void set(final int index, final int gene) { genes.put(index, gene); }
+
+        @Override public void read(final int index, final int[] dest) { genes.get(index, dest); }
+
+        @Override public void write(final int index, final int[] src) { genes.put(index, src); }
+
+        @Override long capacity() { return genes.capacity(); }
+
+        @Override long maxCapacity() { return Integer.MAX_VALUE / Integer.BYTES; }
+
+        @Override void grow(final long capacity)
+        {
+            if (capacity > maxCapacity())
+                throw new IllegalStateException("Arena capacity exceeds the maximum buffer size");
+            final IntBuffer current = genes, grown = allocate((int)capacity);
+            grown.put(0, current, 0, current.capacity());
+            genes = grown;
+        }
+
+        private static IntBuffer allocate(final int numGenes)
+        {
+            return ByteBuffer.allocateDirect(numGenes * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+    }
+}
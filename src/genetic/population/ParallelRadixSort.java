@@ -0,0 +1,177 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package genetic.population;
+
+import util.Tasks;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+
+import static java.lang.Math.min;
+
+
+/**
+ * Parallel least-significant-digit radix sort of fitness costs
+ *
+ * Outperforms the comparison sort of 'Utilities.sort' from roughly a thousand costs onwards,
+ * even on a single thread. Arrays are only divided across threads in blocks large enough
+ * to outweigh the cost of handing them to another thread.
+ *
+ * Costs are transformed into unsigned 64-bit keys which preserve their order, such that
+ * the sort may operate on the keys' bits rather than comparing costs. Each pass sorts by
+ * one byte of the keys: threads count the bytes within their own block of the array,
+ * and then scatter their block into place. Passes in which every key shares the same
+ * byte are skipped. Being a stable sort, ties remain ordered by their index.
+ *
+ * Scratch buffers are re-used across sorts, so sorting does not allocate memory
+ * unless the number of threads grows.
+ */
+final class ParallelRadixSort
+{
+    private static final int RADIX = 256;
+
+    /*
+     * Blocks smaller than this are not worth handing to another thread.
+     * Placeholder: SortBenchmark has only been run on a single core, where no parallel gain can show.
+     * A single-threaded sort of 2^16 costs takes well under a millisecond there, so smaller blocks
+     * would mostly pay for task hand-off. Re-derive from a multi-core run of SortBenchmark.
+     */
+    private static final int MIN_BLOCK = 1 << 16;
+
+    private final long[] keys, keysAlt;
+    private final int[] indexesAlt;
+    private int[][] counts = new int[0][]; // Per-thread counts of each byte, re-used as offsets
+
+    ParallelRadixSort(final int length)
+    {
+        keys = new long[length];
+        keysAlt = new long[length];
+        indexesAlt = new int[length];
+    }
+
+    /**
+     * Sorts costs in ascending order on the calling thread, carrying indexes along with them
+     *
+     * @param costs Costs to be sorted, of the sorter's length
+     * @param indexes Indexes which run parallel to the costs
+     */
+    void sort(final double[] costs, final int[] indexes)
+    {
+        try { sort(costs, indexes, null, 1); }
+        catch (final InterruptedException e) { throw new AssertionError(e); } // Blocks never leave this thread
+    }
+
+    /**
+     * Sorts costs in ascending order, carrying indexes along with them
+     *
+     * @param costs Costs to be sorted, of the sorter's length
+     * @param indexes Indexes which run parallel to the costs
+     * @param executor Executor service to sort on, or null if sorting on the calling thread
+     * @param numThreads Number of blocks in which the array is divided into, or one if sorting on the calling thread
+     * @throws InterruptedException If interrupted while sorting, leaving the costs & indexes unspecified
+     */
+    void sort(final double[] costs, final int[] indexes, final ExecutorService executor, final int numThreads)
+            throws InterruptedException
+    {
+        final int length = keys.length;
+        final int numBlocks = executor == null ? 1 : Math.max(1, min(numThreads, length / MIN_BLOCK));
+        if (counts.length < numBlocks)
+        {
+            counts = new int[numBlocks][];
+            for (int t = 0; t < numBlocks; t++) counts[t] = new int[RADIX];
+        }
+
+        runBlocks(executor, numBlocks, (from, to, t) ->
+        {
+            for (int i = from; i < to; i++) keys[i] = toKey(costs[i]);
+        });
+
+        long[] src = keys, dst = keysAlt;
+        int[] srcIndexes = indexes, dstIndexes = indexesAlt;
+        for (int shift = 0; shift < Long.SIZE; shift += 8)
+        {
+            final int s = shift;
+            final long[] in = src, out = dst;
+            final int[] inIndexes = srcIndexes, outIndexes = dstIndexes;
+            runBlocks(executor, numBlocks, (from, to, t) ->
+            {
+                final int[] count = counts[t];
+                Arrays.fill(count, 0);
+                for (int i = from; i < to; i++) count[(int)(in[i] >>> s) & (RADIX - 1)]++;
+            });
+
+            /* Convert counts into offsets, ordered by byte and then by block, keeping the sort stable */
+            int offset = 0;
+            boolean trivial = false;
+            for (int d = 0; d < RADIX; d++)
+            {
+                final int start = offset;
+                for (int t = 0; t < numBlocks; t++)
+                {
+                    final int count = counts[t][d];
+                    counts[t][d] = offset;
+                    offset += count;
+                }
+                if (offset - start == length) trivial = true;
+            }
+            if (trivial) continue; // Every key shares this byte, the pass would not move anything
+
+            runBlocks(executor, numBlocks, (from, to, t) ->
+            {
+                final int[] next = counts[t];
+                for (int i = from; i < to; i++)
+                {
+                    final int position = next[(int)(in[i] >>> s) & (RADIX - 1)]++;
+                    out[position] = in[i];
+                    outIndexes[position] = inIndexes[i];
+                }
+            });
+            src = out; dst = in;
+            srcIndexes = outIndexes; dstIndexes = inIndexes;
+        }
+
+        final long[] sorted = src;
+        final int[] sortedIndexes = srcIndexes;
+        runBlocks(executor, numBlocks, (from, to, t) ->
+        {
+            for (int i = from; i < to; i++) costs[i] = fromKey(sorted[i]);
+            if (sortedIndexes != indexes) System.arraycopy(sortedIndexes, from, indexes, from, to - from);
+        });
+    }
+
+    /* Maps a cost to a key, such that unsigned key order matches Double.compare order */
+    private static long toKey(final double cost)
+    {
+        final long bits = Double.doubleToRawLongBits(cost);
+        return bits ^ (bits >> 63 | Long.MIN_VALUE);
+    }
+
+    private static double fromKey(final long key)
+    {
+        return Double.longBitsToDouble(key < 0 ? key ^ Long.MIN_VALUE : ~key);
+    }
+
+    /* Runs the task once per block of the array, waiting for every block to complete */
+    private void runBlocks(final ExecutorService executor, final int numBlocks, final Tasks.RangeTask block)
+            throws InterruptedException
+    {
+        if (numBlocks == 1) block.run(0, keys.length, 0); // A single block is not worth handing to another thread
+        else Tasks.forEachRange(executor, keys.length, numBlocks, block);
+    }
+}
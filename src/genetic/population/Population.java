@@ -19,25 +19,45 @@
 package genetic.population;
 
 import genetic.agent.Agent;
+import genetic.agent.ArenaAgent;
 import genetic.gene.Crossover;
 import genetic.gene.Mutation;
 
 import java.util.*;
-import java.util.stream.IntStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static java.util.Objects.requireNonNull;
+import static util.Tasks.awaitAll;
+import static util.Tasks.forEachRange;
+import static util.Tasks.submit;
+import static util.Utilities.select;
+import static util.Utilities.sort;
 import static util.Utilities.validateDomain;
 
 
 public abstract class Population<T extends Agent<T>>
 {
+    /* Populations smaller than this are sorted by comparison, as radix sort passes outweigh the gains */
+    private static final int RADIX_SORT_THRESHOLD = 1 << 10; // See SortBenchmark
+
     private final List<T> agents;
     private final double[] costs;
+    private final boolean[] stale; // Whether each agent's fitness cost is out of date, running parallel with costs
+    private boolean memoized; // Whether agents with up-to-date fitness costs are evaluated again
+    private int[] alias; // Index of the agent whose fitness cost each agent shares, or null if not deduplicated
+    private int numDuplicates, numCandidates; // Duplicate & total genomes found by the last collapse
+    private boolean collapsed; // Whether duplicates are awaiting their shared fitness costs
+    private volatile FitnessCache cache; // Fitness costs of previously evaluated genomes, or null if not cached
+    private final int[] order; // Scratch buffer for sorting, holds the prior index of each agent
+    private ParallelRadixSort radixSort; // Created upon the first radix sort
     private final Random generator;
     private final Repopulator repopulator;
     private final Crossover crosser;
     private final Mutation mutator;
     private final float mutationRate;
+    private final GenomeArena arena;
+    private final List<T> recycled; // Destroyed agents, whose storage is re-used by children
 
     /**
      * Constructs a population of agents
@@ -50,10 +70,59 @@ public abstract class Population<T extends Agent<T>>
      */
     public Population(final int numAgents, final Random generator, final Repopulator repopulator,
                       final Crossover crosser, final Mutation mutator, final float mutationRate)
+    {
+        this(numAgents, null, generator, repopulator, crosser, mutator, mutationRate);
+    }
+
+    /**
+     * Constructs a population of agents, whose genes reside within a genome arena
+     *
+     * The arena is created before any agents are initialized, such that 'initAgent'
+     * may construct agents within the arena. Agents should extend ArenaAgent.
+     *
+     * @param numAgents Number of agents in the population
+     * @param genomeLength Number of genes of each agent
+     * @param generator Random sequence generator
+     * @param crosser Strategy for crossing genes
+     * @param mutator Strategy for mutating genes
+     * @param mutationRate Rate in which mutations occur in child genes [0.0, 1.0]
+     * @see Population#getArena()
+     * @see genetic.agent.ArenaAgent
+     */
+    public Population(final int numAgents, final int genomeLength, final Random generator,
+                      final Repopulator repopulator, final Crossover crosser, final Mutation mutator,
+                      final float mutationRate)
+    {
+        this(numAgents, GenomeArena.onHeap(Math.max(0, numAgents), genomeLength),
+                generator, repopulator, crosser, mutator, mutationRate);
+    }
+
+    /**
+     * Constructs a population of agents, whose genes reside within the specified genome arena
+     *
+     * The arena may reside off-heap, such that heap usage remains flat regardless of population size.
+     * Agents should extend ArenaAgent, and be constructed within the arena by 'initAgent'.
+     *
+     * @param numAgents Number of agents in the population
+     * @param arena Arena to store genes within, or null if agents own their genes
+     * @param generator Random sequence generator
+     * @param crosser Strategy for crossing genes
+     * @param mutator Strategy for mutating genes
+     * @param mutationRate Rate in which mutations occur in child genes [0.0, 1.0]
+     * @see GenomeArena#offHeap(int, int)
+     */
+    public Population(final int numAgents, final GenomeArena arena, final Random generator,
+                       final Repopulator repopulator, final Crossover crosser, final Mutation mutator,
+                       final float mutationRate)
     {
         if (numAgents < 0 || numAgents % 4 != 0)
             throw new IllegalArgumentException("Population size must be positive and a multiple of four");
+        this.arena = arena;
+        recycled = new ArrayList<>(numAgents / 2);
         costs = new double[numAgents];
+        stale = new boolean[numAgents];
+        Arrays.fill(stale, true);
+        order = new int[numAgents];
         agents = new ArrayList<>(numAgents);
         for (int i = 0; i < numAgents; i++)
             agents.add(requireNonNull(initAgent()));
@@ -78,6 +147,38 @@ public abstract class Population<T extends Agent<T>>
                 Crossover.UNIFORM, Mutation.UNIFORM, 0.15f);
     }
 
+    /**
+     * Randomizes the weights of every agent in the population, across multiple threads
+     *
+     * The population is divided into contiguous ranges, one range per thread.
+     * Each range draws from its own stream, split from a generator of the specified seed,
+     * such that threads do not contend over a shared generator. Agents whose genes reside
+     * within an arena are written directly into the arena. For a given seed and thread count,
+     * the resulting weights are reproducible.
+     *
+     * @param seed Seed of the generator which each thread's stream is split from
+     * @param executor Executor service to randomize weights on
+     * @param numThreads Number of ranges in which the population is divided into
+     * @throws InterruptedException If interrupted while randomizing, leaving weights partially randomized
+     * @see Agent#randomizeWeights(SplittableRandom)
+     */
+    public void randomizeWeights(final long seed, final ExecutorService executor, final int numThreads)
+            throws InterruptedException
+    {
+        requireNonNull(executor);
+        if (numThreads <= 0) throw new IllegalArgumentException("Thread count must be positive");
+        final SplittableRandom root = new SplittableRandom(seed);
+        final SplittableRandom[] streams = new SplittableRandom[numThreads];
+        for (int i = 0; i < numThreads; i++)
+            streams[i] = root.split(); // Split on this thread, such that streams are reproducible
+        forEachRange(executor, costs.length, numThreads, (startInc, endExc, range) ->
+        {
+            for (int j = startInc; j < endExc && !Thread.currentThread().isInterrupted(); j++)
+                agents.get(j).randomizeWeights(streams[range]);
+        });
+        invalidateFitness();
+    }
+
     /**
      * Evaluates a specified agent for their fitness aptitude
      *
@@ -93,12 +194,262 @@ public abstract class Population<T extends Agent<T>>
     public abstract T initAgent();
 
     /**
+     * Evaluates the agent at the specified index, consulting the fitness cache if present
+     *
      * @param index Index of the agent to evaluate
      * @see Population#evaluateFitness(Agent)
+     * @see Population#setFitnessCache(FitnessCache)
      */
     public void evaluateFitness(final int index)
     {
-        costs[validateDomain(index, 0, costs.length - 1)] = evaluateFitness(agents.get(index));
+        final T agent = agents.get(validateDomain(index, 0, costs.length - 1));
+        final FitnessCache fc = cache;
+        costs[index] = fc == null ? evaluateFitness(agent)
+                : fc.computeIfAbsent(agent.getWeights(), () -> evaluateFitness(agent));
+    }
+
+    /**
+     * Evaluates a range of agents for their fitness aptitude
+     *
+     * By default, each agent within the range is evaluated individually,
+     * stopping between agents once the calling thread is interrupted.
+     * Implementations may override this method in order to amortize setup work
+     * (e.g. shuffling a deck or allocating buffers) across many agents at once.
+     * Overriding implementations must assign a fitness cost to every agent within the range,
+     * unless the calling thread is interrupted. The fitness cache is consulted by 'evaluateFitness(int)',
+     * so overriding implementations bypass the cache unless they evaluate each agent through it.
+     *
+     * @param fromInclusive Index of the first agent to evaluate, inclusive
+     * @param toExclusive Index of the last agent to evaluate, exclusive
+     * @see Population#evaluateFitness(Agent)
+     * @see Population#getFitnessCosts()
+     */
+    public void evaluateFitness(final int fromInclusive, final int toExclusive)
+    {
+        validateDomain(fromInclusive, 0, costs.length);
+        validateDomain(toExclusive, fromInclusive, costs.length);
+        for (int i = fromInclusive; i < toExclusive && !Thread.currentThread().isInterrupted(); i++)
+            evaluateFitness(i);
+    }
+
+    /**
+     * Evaluates every agent within a range whose fitness cost is stale
+     *
+     * Unless memoization is enabled, every agent within the range is evaluated.
+     * Otherwise, agents whose genes are unchanged since their last evaluation keep their fitness cost.
+     * Consecutive stale agents are evaluated together, such that batch evaluations remain effective.
+     * Evaluators should call this method, rather than evaluating ranges directly.
+     * Should the calling thread be interrupted, evaluation stops early, and the agents
+     * of any unfinished batch remain stale.
+     *
+     * @param fromInclusive Index of the first agent to evaluate, inclusive
+     * @param toExclusive Index of the last agent to evaluate, exclusive
+     * @see Population#evaluateFitness(int, int)
+     * @see Population#setMemoized(boolean)
+     */
+    public final void evaluateStale(final int fromInclusive, final int toExclusive)
+    {
+        validateDomain(fromInclusive, 0, costs.length);
+        validateDomain(toExclusive, fromInclusive, costs.length);
+        if (!memoized && !collapsed)
+        {
+            evaluateFitness(fromInclusive, toExclusive);
+            if (!Thread.currentThread().isInterrupted()) Arrays.fill(stale, fromInclusive, toExclusive, false);
+            return;
+        }
+        for (int i = fromInclusive; i < toExclusive; )
+        {
+            if (!isPending(i)) { i++; continue; }
+            final int start = i;
+            while (i < toExclusive && isPending(i)) i++;
+            evaluateFitness(start, i);
+            if (Thread.currentThread().isInterrupted()) return;
+            Arrays.fill(stale, start, i, false);
+        }
+    }
+
+    /**
+     * Divides the population into contiguous ranges, each holding an even share of the stale agents
+     *
+     * Only agents which 'evaluateStale' would evaluate are counted, such that memoized agents and
+     * duplicates do not leave some ranges with nothing to evaluate. In case the stale agents are
+     * not evenly divisible, the last range picks up the slack.
+     *
+     * @param numRanges Number of ranges in which the population is divided into
+     * @return Boundaries of the ranges, range i spanning indexes [bounds[i], bounds[i + 1])
+     * @see Population#evaluateStale(int, int)
+     */
+    public final int[] staleRanges(final int numRanges)
+    {
+        if (numRanges <= 0) throw new IllegalArgumentException("Range count must be positive");
+        int numStale = 0;
+        for (int i = 0; i < costs.length; i++)
+            if (isPending(i)) numStale++;
+        final int perRange = numStale / numRanges;
+        final int[] bounds = new int[numRanges + 1];
+        int range = 1, seen = 0;
+        for (int i = 0; i < costs.length && range < numRanges; i++)
+        {
+            /* A range ends once it holds its share of stale agents */
+            while (range < numRanges && seen >= range * perRange) bounds[range++] = i;
+            if (isPending(i)) seen++;
+        }
+        Arrays.fill(bounds, range, numRanges + 1, costs.length);
+        return bounds;
+    }
+
+    /* Whether the agent must be evaluated, rather than retaining or sharing a fitness cost */
+    private boolean isPending(final int index)
+    {
+        return (!memoized || stale[index]) && (!collapsed || alias[index] == index);
+    }
+
+    /**
+     * Groups agents with identical genes, such that each unique genome is evaluated once
+     *
+     * Should be called prior to evaluating the population, followed by 'expandDuplicates' afterwards.
+     * Every duplicate genome is skipped by 'evaluateStale', and instead shares the fitness cost
+     * of the first agent with identical genes. Does nothing unless deduplication is enabled.
+     *
+     * @see Population#expandDuplicates()
+     * @see Population#setDeduplicated(boolean)
+     */
+    public void collapseDuplicates()
+    {
+        numDuplicates = numCandidates = 0;
+        collapsed = false;
+        if (alias == null) return;
+        final Map<Genome, Integer> firsts = new HashMap<>(costs.length * 2);
+        for (int i = 0; i < costs.length; i++)
+        {
+            alias[i] = i;
+            if (memoized && !stale[i]) continue; // Agents retaining their cost are not evaluated anyway
+            numCandidates++;
+            final Integer first = firsts.putIfAbsent(new Genome(agents.get(i).getWeights()), i);
+            if (first == null) continue;
+            alias[i] = first;
+            numDuplicates++;
+        }
+        collapsed = numDuplicates > 0;
+    }
+
+    /**
+     * Assigns each duplicate genome the fitness cost of the agent it was grouped with
+     *
+     * Should be called after evaluating a population whose duplicates were collapsed.
+     *
+     * @see Population#collapseDuplicates()
+     */
+    public void expandDuplicates()
+    {
+        if (!collapsed) return;
+        for (int i = 0; i < costs.length; i++)
+        {
+            final int first = alias[i];
+            if (first == i) continue;
+            costs[i] = costs[first];
+            stale[i] = false;
+            alias[i] = i;
+        }
+        collapsed = false;
+    }
+
+    /**
+     * Enables or disables deduplication of genomes within a generation
+     *
+     * When deduplicated, agents with identical genes are evaluated once per generation,
+     * sharing their fitness cost. For stochastic fitness functions, duplicates therefore
+     * share a single sample rather than each drawing their own. Disabled by default.
+     *
+     * @param deduplicated True if identical genomes should be evaluated once
+     * @see Population#collapseDuplicates()
+     */
+    public void setDeduplicated(final boolean deduplicated)
+    {
+        collapsed = false;
+        alias = deduplicated ? new int[costs.length] : null;
+    }
+
+    /**
+     * @return Fraction of evaluated genomes found to be duplicates during the last collapse [0.0, 1.0]
+     * @see Population#collapseDuplicates()
+     */
+    public double getDuplicateRate()
+    {
+        return numCandidates == 0 ? 0 : numDuplicates / (double)numCandidates;
+    }
+
+    /**
+     * @return Number of duplicate genomes found during the last collapse
+     * @see Population#collapseDuplicates()
+     */
+    public int getDuplicateCount()
+    {
+        return numDuplicates;
+    }
+
+    /**
+     * Enables or disables memoization of fitness costs
+     *
+     * When memoized, agents which survive a generation unchanged are not evaluated again,
+     * roughly halving the number of fitness evaluations performed each generation.
+     * Memoization is only valid for deterministic fitness functions, as a survivor's
+     * previous cost is assumed to equal the cost it would be assigned again.
+     * Memoization is disabled by default.
+     *
+     * @param memoized True if survivors should retain their fitness costs
+     * @see Population#invalidateFitness()
+     */
+    public void setMemoized(final boolean memoized)
+    {
+        this.memoized = memoized;
+    }
+
+    /**
+     * @return True if survivors retain their fitness costs
+     * @see Population#setMemoized(boolean)
+     */
+    public boolean isMemoized()
+    {
+        return memoized;
+    }
+
+    /**
+     * Sets the cache which fitness costs are looked up in, prior to evaluating an agent
+     *
+     * Caches may be shared across populations, provided they share the same fitness function.
+     * Caching is only valid for deterministic fitness functions. The cache is consulted per agent,
+     * by 'evaluateFitness(int)': populations which override the batch 'evaluateFitness(int, int)'
+     * bypass the cache, unless their override evaluates each agent through 'evaluateFitness(int)'.
+     *
+     * @param cache Fitness cache, or null to disable caching
+     * @see Population#evaluateFitness(int)
+     * @see Population#evaluateFitness(int, int)
+     */
+    public void setFitnessCache(final FitnessCache cache)
+    {
+        this.cache = cache;
+    }
+
+    /**
+     * @return Fitness cache, or null if fitness costs are not cached
+     */
+    public FitnessCache getFitnessCache()
+    {
+        return cache;
+    }
+
+    /**
+     * Marks the fitness cost of every agent as stale
+     *
+     * Should be called whenever the genes of agents are modified outside the population,
+     * or whenever the fitness function itself changes, such that memoized costs are no longer valid.
+     *
+     * @see Population#setMemoized(boolean)
+     */
+    public void invalidateFitness()
+    {
+        Arrays.fill(stale, true);
     }
 
     /**
@@ -106,22 +457,83 @@ public abstract class Population<T extends Agent<T>>
      *
      * Fitness test should be performed before this method is called.
      * This method should be called before a population cull/gradient.
+     * Populations of a thousand or more agents are radix sorted, which outperforms comparison sorting.
      */
     public void sortPopulation()
     {
-        // Agents & costs must be tied together, create copies as to not overwrite data
-        final List<T> agents_co = List.copyOf(agents);
-        final double[] costs_co = Arrays.copyOf(costs, costs.length);
+        // Costs are sorted in-place, carrying along the index of the agent which each cost belongs to
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        if (costs.length < RADIX_SORT_THRESHOLD) sort(costs, order);
+        else
+        {
+            if (radixSort == null) radixSort = new ParallelRadixSort(costs.length);
+            radixSort.sort(costs, order);
+        }
+        permuteAgents();
+    }
 
-        // Sadly sorting via a comparator requires integers to be boxed
-        final List<Integer> indexes = IntStream.range(0, costs.length).boxed()
-                .sorted(Comparator.comparingDouble(i -> costs[i]))
-                .toList();
-        for (int i = 0; i < costs.length; i++)
+    /**
+     * Sorts the population by their fitness scores, across multiple threads
+     *
+     * Large populations are sorted via a parallel radix sort on the bits of the fitness costs,
+     * divided across threads only once each thread's share outweighs the cost of handing it over.
+     * Small populations are sorted on the calling thread, as the sort would not benefit from threads.
+     * Either way, the resulting order is identical to that of 'sortPopulation()'.
+     *
+     * @param executor Executor service to sort on
+     * @param numThreads Number of threads to divide the population across
+     * @throws InterruptedException If interrupted while sorting, leaving the population's order unspecified
+     * @see Population#sortPopulation()
+     */
+    public void sortPopulation(final ExecutorService executor, final int numThreads) throws InterruptedException
+    {
+        requireNonNull(executor);
+        if (numThreads <= 0) throw new IllegalArgumentException("Thread count must be positive");
+        if (numThreads == 1 || costs.length < RADIX_SORT_THRESHOLD)
         {
-            final int j = indexes.get(i);
-            agents.set(i, agents_co.get(j));
-            costs[i] = costs_co[j];
+            sortPopulation();
+            return;
+        }
+        if (radixSort == null) radixSort = new ParallelRadixSort(costs.length);
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        radixSort.sort(costs, order, executor, numThreads);
+        permuteAgents();
+    }
+
+    /**
+     * Partitions the population by their fitness scores, around the median
+     *
+     * The better performing half of the population is moved before the worse performing half.
+     * Agents within either half are not sorted. Unlike sorting, partitioning takes linear time.
+     * This method may be called in place of 'sortPopulation' when a total order is not required.
+     *
+     * @see Population#sortPopulation()
+     * @see genetic.gradient.Gradient#requiresTotalOrder()
+     */
+    public void partitionPopulation()
+    {
+        if (costs.length == 0) return;
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        select(costs, order, costs.length / 2);
+        permuteAgents();
+    }
+
+    /* Permutes agents in-place to match their costs, following each cycle of the permutation */
+    private void permuteAgents()
+    {
+        for (int i = 0; i < order.length; i++)
+        {
+            if (order[i] == i) continue;
+            final T first = agents.get(i);
+            int j = i;
+            for (int k = order[j]; k != i; k = order[j])
+            {
+                agents.set(j, agents.get(k));
+                order[j] = j; // Mark the position as permuted
+                j = k;
+            }
+            agents.set(j, first);
+            order[j] = j;
         }
     }
 
@@ -139,16 +551,125 @@ public abstract class Population<T extends Agent<T>>
      */
     public void repopulate()
     {
+        cullLesserHalf();
+        repopulator.repopulate(this, generator, this::spawn);
+        // Children occupy the lesser half, and have yet to be evaluated
+        Arrays.fill(stale, costs.length / 2, costs.length, true);
+    }
+
+    /**
+     * Re-populates the population, evaluating children as they are birthed
+     *
+     * Each child is handed to the executor service for a fitness evaluation
+     * as soon as it is birthed, overlapping evaluation with re-population.
+     * Agents which survive re-population retain their existing fitness costs.
+     * Children are evaluated individually, bypassing any batch evaluation.
+     *
+     * 'sortPopulation' must be called before this method is called.
+     *
+     * @param executor Executor service to evaluate children on
+     * @throws InterruptedException If interrupted while children are being evaluated
+     * @see Population#repopulate()
+     * @see Population#evaluateFitness(Agent)
+     */
+    public void repopulate(final ExecutorService executor) throws InterruptedException
+    {
+        requireNonNull(executor);
+        final Map<T, Integer> birthOrder = new IdentityHashMap<>(costs.length);
+        final List<Future<Double>> births = new ArrayList<>(costs.length / 2);
+        cullLesserHalf();
         repopulator.repopulate(this, generator, (f, m) ->
         {
-            final T child = initAgent();
-            child.inherit(f, m, generator, crosser);
-            // Mutate the child's genes according to the mutator & rate
-            final int[] genes = child.getWeights();
-            for (int j = 0; j < genes.length; j++)
-                genes[j] = mutator.perform(genes[j], generator, mutationRate);
+            final T child = spawn(f, m);
+            birthOrder.put(child, births.size());
+            births.add(submit(executor, () -> evaluateFitness(child)));
             return child;
         });
+
+        final List<Double> childCosts = awaitAll(births);
+        for (int i = 0; i < costs.length; i++)
+        {
+            final Integer birth = birthOrder.get(agents.get(i));
+            if (birth != null) costs[i] = childCosts.get(birth);
+        }
+    }
+
+    /**
+     * Births a child from two parents
+     *
+     * Children inherit genes from their parents according to the crosser.
+     * Children's genes are then mutated according to the mutator and mutation rate.
+     * The child is not added to the population, nor is it evaluated.
+     * Should an agent have been destroyed, it is recycled as the child rather than initializing a new agent.
+     *
+     * @param father Father to inherit genes from
+     * @param mother Mother to inherit genes from
+     * @return Newly birthed child
+     * @see Population#cull(Agent)
+     */
+    public T spawn(final T father, final T mother)
+    {
+        final T child = recycled.isEmpty() ? initAgent() : recycled.remove(recycled.size() - 1);
+        child.inherit(father, mother, generator, crosser);
+        child.mutate(generator, mutator, mutationRate); // Mutate the child's genes according to the mutator & rate
+        return child;
+    }
+
+    /**
+     * Notifies the population that an agent is being destroyed
+     *
+     * The agent is recycled as a child birthed afterwards, its genes being overwritten.
+     * Steady-state re-population therefore allocates neither agents nor genes.
+     * The agent must not be used once destroyed.
+     *
+     * @param agent Agent being destroyed
+     * @see Population#spawn(Agent, Agent)
+     */
+    public void cull(final T agent)
+    {
+        requireNonNull(agent);
+        if (recycled.size() < costs.length) recycled.add(agent);
+        // Agents which cannot be recycled must release their storage within the arena
+        else if (agent instanceof ArenaAgent) ((ArenaAgent<?>)agent).release();
+    }
+
+    /* Destroys the lesser half of the population, which is about to be replaced */
+    private void cullLesserHalf()
+    {
+        for (int i = costs.length / 2; i < costs.length; i++)
+            cull(agents.get(i));
+    }
+
+    /**
+     * Replaces the genes of an agent with that of a migrant
+     *
+     * The genes of the migrant are copied into the agent at the specified index.
+     * The migrant is not modified, nor is it added to the population.
+     *
+     * @param index Index of the agent to replace
+     * @param migrant Agent whose genes are to be copied
+     * @param cost Fitness cost of the migrant
+     */
+    public void immigrate(final int index, final Agent<?> migrant, final double cost)
+    {
+        immigrate(index, requireNonNull(migrant).getWeights(), cost);
+    }
+
+    /**
+     * @param index Index of the agent to replace
+     * @param genes Genes of the migrant
+     * @param cost Fitness cost of the migrant
+     * @see Population#immigrate(int, Agent, double)
+     */
+    public void immigrate(final int index, final int[] genes, final double cost)
+    {
+        final T dest = agents.get(validateDomain(index, 0, costs.length - 1));
+        if (requireNonNull(genes).length != dest.geneCount())
+            throw new IllegalArgumentException("Migrant must have the same number of genes as the population");
+        for (int i = 0; i < genes.length; i++)
+            dest.setGene(i, genes[i]);
+        costs[index] = cost;
+        stale[index] = false;
     }
 
     /**
@@ -163,20 +684,16 @@ public abstract class Population<T extends Agent<T>>
     public IntSummaryStatistics[] geneEvaluation()
     {
         if (agents.isEmpty()) throw new IllegalStateException("Cannot evaluate uninitialized population.");
-        final int numWeights = agents.get(0).getWeights().length;
+        final int numWeights = agents.get(0).geneCount();
         // Create a statistics object for every single weight
         final IntSummaryStatistics[] stats = new IntSummaryStatistics[numWeights];
         for (int i = 0; i < numWeights; i++) stats[i] = new IntSummaryStatistics();
-        agents.stream()
-                .map(Agent::getWeights)
-                .forEach(weights ->
-                {
-                    for (int i = 0; i < weights.length; i++)
-                    {
-                        final IntSummaryStatistics iss = stats[i];
-                        iss.accept(weights[i]); // Record the weight of every gene of every agent
-                    }
-                });
+        for (final T agent : agents)
+            for (int i = 0; i < numWeights; i++)
+            {
+                final IntSummaryStatistics iss = stats[i];
+                iss.accept(agent.getGene(i)); // Record the weight of every gene of every agent
+            }
         return stats;
     }
 
@@ -215,6 +732,14 @@ public abstract class Population<T extends Agent<T>>
         return agents;
     }
 
+    /**
+     * @return Genome arena which the agents' genes reside within, or null if agents own their genes
+     */
+    public GenomeArena getArena()
+    {
+        return arena;
+    }
+
     /**
      * @return number of agents in the population
      */
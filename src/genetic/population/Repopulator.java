@@ -61,6 +61,7 @@ public interface Repopulator
             final List<T> agents = requireNonNull(pop).getPopulation();
             final int numAgents = agents.size();
             final int halfPop = numAgents / 2;
+            final double[] costs = pop.getFitnessCosts();
             final List<T> parents = agents.subList(0, halfPop), children = agents.subList(halfPop, numAgents);
             for (int i = 0; i < 2; i++) // Two-pass algorithm
             {
@@ -69,6 +70,7 @@ public interface Repopulator
                     final T father = parents.get(j);
                     final int mIndex = 1 + generator.nextInt(halfPop - j - 1);
                     swap(parents, j + 1, mIndex);
+                    swap(costs, j + 1, mIndex); // Parents' costs must follow their agents
                     children.set(j + i, requireNonNull(spawner.apply(father, parents.get(mIndex))));
                 }
             }
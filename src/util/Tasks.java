@@ -0,0 +1,228 @@
+/*
+ *     Genetic algorithm which teaches agents how to play Blackjack.
+ *     Copyright (C) 2019-2023  Kevin Tyrrell
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Objects.requireNonNull;
+
+
+/**
+ * Helpers for dividing work across an executor service, and awaiting its completion
+ */
+public final class Tasks
+{
+    private Tasks() { }
+
+    /**
+     * Task performed upon a contiguous range of indexes
+     */
+    @FunctionalInterface
+    public interface RangeTask
+    {
+        /**
+         * @param fromInclusive First index of the range, inclusive
+         * @param toExclusive Last index of the range, exclusive
+         * @param range Index of the range, domain: [0, number of ranges)
+         */
+        void run(final int fromInclusive, final int toExclusive, final int range);
+    }
+
+    /**
+     * Divides indexes [0, length) into contiguous ranges, performing the task upon each range
+     *
+     * Each range is submitted to the executor service as its own task.
+     * In case the length is not evenly divisible, the last range picks up the slack.
+     * Returns once every range is complete, as described by 'awaitAll'.
+     *
+     * @param executor Executor service to perform the task on
+     * @param length Number of indexes to divide
+     * @param numRanges Number of ranges in which the indexes are divided into
+     * @param task Task to perform upon each range
+     * @throws InterruptedException If interrupted while waiting, abandoning the remaining ranges
+     * @see Tasks#awaitAll(Collection)
+     */
+    public static void forEachRange(final ExecutorService executor, final int length, final int numRanges,
+                                    final RangeTask task) throws InterruptedException
+    {
+        Utilities.validateDomain(length, 0, Integer.MAX_VALUE);
+        if (numRanges <= 0) throw new IllegalArgumentException("Range count must be positive");
+        final int perRange = length / numRanges;
+        final int[] bounds = new int[numRanges + 1];
+        for (int i = 0; i < numRanges; i++)
+            bounds[i] = i * perRange;
+        bounds[numRanges] = length; // In case work load is not evenly divisible, last range picks up the slack
+        forEachRange(executor, bounds, task);
+    }
+
+    /**
+     * Performs the task upon each range between consecutive boundaries
+     *
+     * Range i spans indexes [bounds[i], bounds[i + 1]). Each range is submitted to the
+     * executor service as its own task. Returns once every range is complete, as described by 'awaitAll'.
+     *
+     * @param executor Executor service to perform the task on
+     * @param bounds Non-decreasing boundaries of the ranges, one more than the number of ranges
+     * @param task Task to perform upon each range
+     * @throws InterruptedException If interrupted while waiting, abandoning the remaining ranges
+     * @see Tasks#awaitAll(Collection)
+     */
+    public static void forEachRange(final ExecutorService executor, final int[] bounds, final RangeTask task)
+            throws InterruptedException
+    {
+        requireNonNull(executor);
+        requireNonNull(task);
+        if (requireNonNull(bounds).length < 2) throw new IllegalArgumentException("Bounds must span a range");
+        final int numRanges = bounds.length - 1;
+        final List<Future<?>> results = new ArrayList<>(numRanges);
+        for (int i = 0; i < numRanges; i++)
+        {
+            final int range = i, from = bounds[i], to = bounds[i + 1];
+            if (from > to) throw new IllegalArgumentException("Bounds must be non-decreasing");
+            results.add(submit(executor, () -> task.run(from, to, range)));
+        }
+        awaitAll(results);
+    }
+
+    /**
+     * Submits a task to the executor service, such that 'awaitAll' may wait for it to stop running
+     *
+     * @param executor Executor service to perform the task on
+     * @param task Task to perform
+     * @param <V> Type of result
+     * @return Pending result of the task
+     * @see Tasks#awaitAll(Collection)
+     */
+    public static <V> Future<V> submit(final ExecutorService executor, final Callable<V> task)
+    {
+        final TrackedTask<V> tracked = new TrackedTask<>(requireNonNull(task));
+        requireNonNull(executor).execute(tracked);
+        return tracked;
+    }
+
+    /**
+     * Submits a task to the executor service, such that 'awaitAll' may wait for it to stop running
+     *
+     * @param executor Executor service to perform the task on
+     * @param task Task to perform
+     * @return Pending completion of the task
+     * @see Tasks#awaitAll(Collection)
+     */
+    public static Future<?> submit(final ExecutorService executor, final Runnable task)
+    {
+        requireNonNull(task);
+        return submit(executor, () ->
+        {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Waits for each task to complete normally, abandoning the remaining tasks otherwise
+     *
+     * Should any task fail, or the calling thread be interrupted while waiting,
+     * every task is cancelled, interrupting those which are in-flight.
+     * Before returning, waits for the in-flight tasks which were submitted through 'submit'
+     * to stop running, such that none of them outlive the call.
+     *
+     * @param results Pending results of each task
+     * @param <V> Type of result
+     * @return Result of each task, in iteration order of the pending results
+     * @throws InterruptedException If interrupted while waiting
+     * @throws RuntimeException If any task failed, wrapping the cause of its failure
+     * @see Tasks#submit(ExecutorService, Callable)
+     */
+    public static <V> List<V> awaitAll(final Collection<? extends Future<? extends V>> results) throws InterruptedException
+    {
+        final List<V> values = new ArrayList<>(requireNonNull(results).size());
+        try
+        {
+            for (final Future<? extends V> result : results)
+                values.add(result.get());
+        }
+        catch (final ExecutionException e)
+        {
+            cancelAll(results);
+            throw new RuntimeException(e);
+        }
+        catch (final InterruptedException e)
+        {
+            cancelAll(results);
+            throw e;
+        }
+        return values;
+    }
+
+    /* Cancels every task, then waits for those in-flight to stop running, preserving the interrupt status */
+    private static void cancelAll(final Collection<? extends Future<?>> results)
+    {
+        for (final Future<?> result : results) result.cancel(true);
+        boolean interrupted = false;
+        for (final Future<?> result : results)
+        {
+            if (!(result instanceof TrackedTask)) continue;
+            while (true)
+            {
+                try
+                {
+                    ((TrackedTask<?>)result).awaitStopped();
+                    break;
+                }
+                catch (final InterruptedException e) { interrupted = true; }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /* Task which signals once it has stopped running, or can no longer start */
+    private static final class TrackedTask<V> extends FutureTask<V>
+    {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch stopped = new CountDownLatch(1);
+
+        private TrackedTask(final Callable<V> task)
+        {
+            super(task);
+        }
+
+        @Override public void run()
+        {
+            if (!claimed.compareAndSet(false, true)) return; // Abandoned before it started
+            try { super.run(); }
+            finally { stopped.countDown(); }
+        }
+
+        /* Waits until the task has stopped running, preventing it from starting if it has not already */
+        private void awaitStopped() throws InterruptedException
+        {
+            if (claimed.compareAndSet(false, true)) return;
+            stopped.await();
+        }
+    }
+}
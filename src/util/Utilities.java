@@ -165,4 +165,161 @@ public final class Utilities
         l.set(a, l.get(validateDomain(b, 0, size)));
         l.set(b, o);
     }
+
+    /**
+     * Swaps two elements in an array
+     *
+     * @param arr Array to be mutated
+     * @param a Index of an element to be swapped
+     * @param b Index of an element to be swapped
+     */
+    public static void swap(final double[] arr, final int a, final int b)
+    {
+        final int size = requireNonNull(arr).length;
+        final double o = arr[validateDomain(a, 0, size)];
+        arr[a] = arr[validateDomain(b, 0, size)];
+        arr[b] = o;
+    }
+
+    /**
+     * Sorts an array of keys in ascending order, carrying indexes along with them
+     *
+     * Whenever two keys are swapped, their indexes are swapped as well.
+     * Keys are ordered as per Double.compare, with ties ordered by their index.
+     * Should the indexes start in ascending order, the sort is therefore stable.
+     * Sorting is performed in-place, without allocating memory.
+     *
+     * @param keys Keys to be sorted
+     * @param indexes Indexes which run parallel to the keys
+     */
+    public static void sort(final double[] keys, final int[] indexes)
+    {
+        if (requireNonNull(keys).length != requireNonNull(indexes).length)
+            throw new IllegalArgumentException("Keys and indexes must be of equal length");
+        // Fall back to heap sort should quick sort degrade, guaranteeing O(n log n)
+        introSort(keys, indexes, 0, keys.length, 2 * (32 - Integer.numberOfLeadingZeros(keys.length)));
+    }
+
+    /**
+     * Partially sorts an array of keys, carrying indexes along with them
+     *
+     * Upon completion, the key at the specified rank is the key which would be there were
+     * the array sorted. Keys before it are no greater, and keys after it are no smaller.
+     * Keys are ordered as per Double.compare, with ties ordered by their index.
+     * Selection is performed in-place in expected linear time, without allocating memory.
+     *
+     * @param keys Keys to be partitioned
+     * @param indexes Indexes which run parallel to the keys
+     * @param rank Index at which to partition the keys
+     * @see Utilities#sort(double[], int[])
+     */
+    public static void select(final double[] keys, final int[] indexes, final int rank)
+    {
+        if (requireNonNull(keys).length != requireNonNull(indexes).length)
+            throw new IllegalArgumentException("Keys and indexes must be of equal length");
+        validateDomain(rank, 0, Math.max(0, keys.length - 1));
+        int lo = 0, hi = keys.length;
+        // Fall back to heap sort should quick select degrade, guaranteeing O(n log n)
+        for (int depth = 2 * (32 - Integer.numberOfLeadingZeros(keys.length)); hi - lo > 16; depth--)
+        {
+            if (depth == 0)
+            {
+                heapSort(keys, indexes, lo, hi);
+                return;
+            }
+            final int j = partition(keys, indexes, lo, hi);
+            if (j == rank) return;
+            if (j < rank) lo = j + 1; else hi = j;
+        }
+        insertionSort(keys, indexes, lo, hi);
+    }
+
+    private static void introSort(final double[] k, final int[] x, int lo, int hi, int depth)
+    {
+        while (hi - lo > 16)
+        {
+            if (depth-- == 0)
+            {
+                heapSort(k, x, lo, hi);
+                return;
+            }
+            final int j = partition(k, x, lo, hi);
+
+            // Recurse into the smaller side, iterating over the larger side to bound stack depth
+            if (j - lo < hi - j - 1)
+            {
+                introSort(k, x, lo, j, depth);
+                lo = j + 1;
+            }
+            else
+            {
+                introSort(k, x, j + 1, hi, depth);
+                hi = j;
+            }
+        }
+        insertionSort(k, x, lo, hi);
+    }
+
+    /* Partitions the range around a median of three pivot, returning the pivot's final position */
+    private static int partition(final double[] k, final int[] x, final int lo, final int hi)
+    {
+        /* Median of three, placing the median at lo */
+        final int mid = (lo + hi) >>> 1;
+        if (less(k, x, mid, lo)) swap(k, x, mid, lo);
+        if (less(k, x, hi - 1, lo)) swap(k, x, hi - 1, lo);
+        if (less(k, x, hi - 1, mid)) swap(k, x, hi - 1, mid);
+        swap(k, x, lo, mid);
+
+        /* Partition around the pivot, keys are unique as ties are broken by index */
+        int i = lo, j = hi;
+        while (true)
+        {
+            do i++; while (i < hi && less(k, x, i, lo));
+            do j--; while (less(k, x, lo, j));
+            if (i >= j) break;
+            swap(k, x, i, j);
+        }
+        swap(k, x, lo, j);
+        return j;
+    }
+
+    private static void insertionSort(final double[] k, final int[] x, final int lo, final int hi)
+    {
+        for (int i = lo + 1; i < hi; i++)
+            for (int j = i; j > lo && less(k, x, j, j - 1); j--)
+                swap(k, x, j, j - 1);
+    }
+
+    private static void heapSort(final double[] k, final int[] x, final int lo, final int hi)
+    {
+        final int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(k, x, lo, i, n);
+        for (int end = n - 1; end > 0; end--)
+        {
+            swap(k, x, lo, lo + end);
+            siftDown(k, x, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(final double[] k, final int[] x, final int lo, int root, final int n)
+    {
+        for (int child; (child = 2 * root + 1) < n; root = child)
+        {
+            if (child + 1 < n && less(k, x, lo + child, lo + child + 1)) child++;
+            if (!less(k, x, lo + root, lo + child)) return;
+            swap(k, x, lo + root, lo + child);
+        }
+    }
+
+    private static boolean less(final double[] k, final int[] x, final int a, final int b)
+    {
+        final int c = Double.compare(k[a], k[b]);
+        return c < 0 || c == 0 && x[a] < x[b];
+    }
+
+    private static void swap(final double[] k, final int[] x, final int a, final int b)
+    {
+        final double t = k[a]; k[a] = k[b]; k[b] = t;
+        final int u = x[a]; x[a] = x[b]; x[b] = u;
+    }
 }